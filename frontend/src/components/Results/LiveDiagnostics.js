@@ -0,0 +1,51 @@
+import React from 'react';
+import { Box, Chip, Typography } from '@mui/material';
+
+const LiveDiagnostics = ({ connected, valid, syntaxValidationMetric, diagnostics, error }) => {
+    let label;
+    let color = 'default';
+    if (error) {
+        label = `Live validation: ${error}`;
+        color = 'warning';
+    } else if (!connected) {
+        label = 'Live validation: disconnected';
+    } else if (valid === true) {
+        label = `Live validation: valid (${syntaxValidationMetric}%)`;
+        color = 'success';
+    } else if (valid === false) {
+        label = `Live validation: ${diagnostics.length} error(s)`;
+        color = 'error';
+    } else {
+        label = 'Live validation: checking...';
+    }
+
+    return (
+        <Box sx={{ mt: 1 }}>
+            <Chip label={label} color={color} size="small" />
+            {diagnostics.length > 0 && (
+                <Box sx={{
+                    mt: 1,
+                    p: 1,
+                    borderRadius: 1,
+                    bgcolor: '#ffebee',
+                    color: '#c62828',
+                    maxHeight: '120px',
+                    overflow: 'auto',
+                    fontFamily: 'monospace',
+                    fontSize: '0.8rem'
+                }}>
+                    {diagnostics.map(diagnostic => (
+                        <Typography key={diagnostic.id} variant="body2" sx={{ fontFamily: 'inherit', fontSize: 'inherit' }}>
+                            {diagnostic.line != null
+                                ? `Line ${diagnostic.line}, Column ${diagnostic.column ?? 'N/A'}: `
+                                : ''}
+                            {diagnostic.message}
+                        </Typography>
+                    ))}
+                </Box>
+            )}
+        </Box>
+    );
+};
+
+export default LiveDiagnostics;
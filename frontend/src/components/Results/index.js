@@ -6,6 +6,8 @@ import TestInfo from './TestInfo';
 import TestActions from './TestActions';
 import ValidationResults from './ValidationResults';
 import Notification from './Notification';
+import LiveDiagnostics from './LiveDiagnostics';
+import useLiveValidation from './useLiveValidation';
 import {
     extractJavaScriptCode,
     handleCopyToClipboard,
@@ -39,6 +41,8 @@ const Results = () => {
         message: ''
     });
     const [isValidated, setIsValidated] = useState(false);
+    // Validates as you type while the editor is open
+    const liveValidation = useLiveValidation(editedTest, modalOpen && isEditing);
 
     const handleSidebarNavigation = (item) => {
         setActiveSidebarItem(item);
@@ -165,22 +169,25 @@ const Results = () => {
                         </Box>
 
                         {isEditing ? (
-                            <TextField
-                                fullWidth
-                                multiline
-                                minRows={15}
-                                maxRows={20}
-                                value={editedTest}
-                                onChange={(e) => setEditedTest(e.target.value)}
-                                variant="outlined"
-                                sx={{
-                                    fontFamily: 'monospace',
-                                    '& .MuiInputBase-root': {
+                            <>
+                                <TextField
+                                    fullWidth
+                                    multiline
+                                    minRows={15}
+                                    maxRows={20}
+                                    value={editedTest}
+                                    onChange={(e) => setEditedTest(e.target.value)}
+                                    variant="outlined"
+                                    sx={{
                                         fontFamily: 'monospace',
-                                        fontSize: '0.875rem'
-                                    }
-                                }}
-                            />
+                                        '& .MuiInputBase-root': {
+                                            fontFamily: 'monospace',
+                                            fontSize: '0.875rem'
+                                        }
+                                    }}
+                                />
+                                <LiveDiagnostics {...liveValidation} />
+                            </>
                         ) : (
                             <Paper
                                 component="pre"
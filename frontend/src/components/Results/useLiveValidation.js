@@ -0,0 +1,114 @@
+import { useEffect, useRef, useState } from 'react';
+
+const VALIDATION_SOCKET_URL = 'ws://localhost:8080/ws/validation';
+const FILE_NAME = 'TestContract.js';
+
+// Smallest single replacement turning previous into next: common prefix and suffix are kept
+export const computeChange = (previous, next) => {
+    let start = 0;
+    const maxStart = Math.min(previous.length, next.length);
+    while (start < maxStart && previous[start] === next[start]) start++;
+
+    let previousEnd = previous.length;
+    let nextEnd = next.length;
+    while (previousEnd > start && nextEnd > start && previous[previousEnd - 1] === next[nextEnd - 1]) {
+        previousEnd--;
+        nextEnd--;
+    }
+    return { offset: start, deleteCount: previousEnd - start, text: next.slice(start, nextEnd) };
+};
+
+/**
+ * Live validation of the edited test over /ws/validation. The server debounces keystrokes and only pushes
+ * the diagnostics that appeared or disappeared, so this keeps them keyed by id.
+ */
+const useLiveValidation = (text, enabled) => {
+    const socketRef = useRef(null);
+    const sentTextRef = useRef('');
+    const versionRef = useRef(0);
+    const latestTextRef = useRef(text);
+    const [state, setState] = useState({
+        connected: false,
+        valid: null,
+        syntaxValidationMetric: null,
+        diagnostics: {},
+        error: ''
+    });
+
+    latestTextRef.current = text;
+
+    useEffect(() => {
+        if (!enabled) return undefined;
+
+        const socket = new WebSocket(VALIDATION_SOCKET_URL);
+        socketRef.current = socket;
+
+        const open = () => {
+            sentTextRef.current = latestTextRef.current;
+            versionRef.current = 0;
+            socket.send(JSON.stringify({ type: 'open', fileName: FILE_NAME, text: sentTextRef.current }));
+        };
+
+        socket.onopen = () => {
+            setState(prev => ({ ...prev, connected: true, error: '' }));
+            open();
+        };
+
+        socket.onmessage = (event) => {
+            const message = JSON.parse(event.data);
+            if (message.type === 'diagnostics') {
+                setState(prev => {
+                    const diagnostics = { ...prev.diagnostics };
+                    (message.removed || []).forEach(id => delete diagnostics[id]);
+                    (message.added || []).forEach(diagnostic => { diagnostics[diagnostic.id] = diagnostic; });
+                    return {
+                        ...prev,
+                        valid: message.valid,
+                        syntaxValidationMetric: message.syntaxValidationMetric,
+                        diagnostics,
+                        error: ''
+                    };
+                });
+            } else if (message.type === 'resync') {
+                // The server dropped our document; everything published so far is void
+                setState(prev => ({ ...prev, valid: null, diagnostics: {} }));
+                open();
+            } else if (message.type === 'error') {
+                setState(prev => ({ ...prev, error: message.message }));
+            }
+        };
+
+        socket.onerror = () => {
+            setState(prev => ({ ...prev, error: 'Live validation unavailable' }));
+        };
+
+        socket.onclose = () => {
+            setState(prev => ({ ...prev, connected: false }));
+        };
+
+        return () => {
+            socketRef.current = null;
+            socket.close();
+            setState({ connected: false, valid: null, syntaxValidationMetric: null, diagnostics: {}, error: '' });
+        };
+    }, [enabled]);
+
+    useEffect(() => {
+        const socket = socketRef.current;
+        // Edits made before the socket opened are covered by the open message
+        if (!enabled || !socket || socket.readyState !== WebSocket.OPEN) return;
+        if (text === sentTextRef.current) return;
+
+        const change = computeChange(sentTextRef.current, text);
+        versionRef.current += 1;
+        sentTextRef.current = text;
+        socket.send(JSON.stringify({ type: 'edit', version: versionRef.current, changes: [change] }));
+    }, [text, enabled]);
+
+    return {
+        ...state,
+        diagnostics: Object.values(state.diagnostics)
+    };
+};
+
+export default useLiveValidation;
@@ -0,0 +1,60 @@
+package net.javaguides.springAi_ollama_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "generation")
+public class GenerationModelProperties {
+
+    // Models available for test generation, smallest/fastest first. A request goes to the first model whose
+    // maxContractTokens fits the contract and falls back to the following ones. Defaults to the configured chat model when empty
+    private List<Model> models = new ArrayList<>();
+
+    public static class Model {
+        private String name;
+
+        // Largest contract (estimated tokens) routed to this model; no limit when unset
+        private Integer maxContractTokens;
+
+        // Time to wait for an answer before falling back to the next model; no limit when unset
+        private Duration timeout;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getMaxContractTokens() {
+            return maxContractTokens;
+        }
+
+        public void setMaxContractTokens(Integer maxContractTokens) {
+            this.maxContractTokens = maxContractTokens;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    // Getters and Setters
+    public List<Model> getModels() {
+        return models;
+    }
+
+    public void setModels(List<Model> models) {
+        this.models = models;
+    }
+}
@@ -0,0 +1,78 @@
+package net.javaguides.springAi_ollama_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "ollama.warmup")
+public class OllamaWarmupProperties {
+
+    private boolean enabled = true;
+
+    // Passed to Ollama as keep_alive, e.g. "30m", or "-1" to keep models loaded indefinitely
+    private String keepAlive = "30m";
+
+    // How often to re-touch the models; keep it below keepAlive
+    private Duration interval = Duration.ofMinutes(10);
+
+    // Models to preload; lower priority values load first. Defaults to the generation models when empty
+    private List<Model> models = new ArrayList<>();
+
+    public static class Model {
+        private String name;
+        private int priority;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(String keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public List<Model> getModels() {
+        return models;
+    }
+
+    public void setModels(List<Model> models) {
+        this.models = models;
+    }
+}
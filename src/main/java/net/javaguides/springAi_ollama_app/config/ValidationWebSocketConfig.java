@@ -0,0 +1,66 @@
+package net.javaguides.springAi_ollama_app.config;
+
+import jakarta.servlet.ServletContext;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import net.javaguides.springAi_ollama_app.controller.ValidationSessionEndpoint;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.ServletContextAware;
+
+import java.util.List;
+
+/**
+ * Registers the validation WebSocket endpoint with the embedded Tomcat's JSR-356 container.
+ * Runs once all singletons exist, which is after the web server has set the container up.
+ */
+@Component
+public class ValidationWebSocketConfig implements ServletContextAware, SmartInitializingSingleton {
+
+    // Same origins as CorsConfig
+    private static final List<String> ALLOWED_ORIGINS = List.of("http://localhost:3000");
+
+    private final ValidationSessionEndpoint endpoint;
+    private ServletContext servletContext;
+
+    public ValidationWebSocketConfig(ValidationSessionEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ServerContainer container = servletContext == null ? null
+                : (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if (container == null) {
+            System.err.println("No WebSocket container available, live validation at " + ValidationSessionEndpoint.PATH + " is disabled");
+            return;
+        }
+
+        ServerEndpointConfig config = ServerEndpointConfig.Builder
+                .create(ValidationSessionEndpoint.class, ValidationSessionEndpoint.PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(endpoint);
+                    }
+
+                    @Override
+                    public boolean checkOrigin(String originHeaderValue) {
+                        // Non-browser clients send no Origin header
+                        return originHeaderValue == null || ALLOWED_ORIGINS.contains(originHeaderValue);
+                    }
+                })
+                .build();
+        try {
+            container.addEndpoint(config);
+        } catch (DeploymentException e) {
+            throw new IllegalStateException("Failed to register " + ValidationSessionEndpoint.PATH, e);
+        }
+    }
+}
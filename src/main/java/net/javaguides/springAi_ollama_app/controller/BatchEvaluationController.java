@@ -0,0 +1,123 @@
+package net.javaguides.springAi_ollama_app.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springAi_ollama_app.dto.BatchJob;
+import net.javaguides.springAi_ollama_app.dto.BatchJobRequest;
+import net.javaguides.springAi_ollama_app.dto.TestGenerationRequest;
+import net.javaguides.springAi_ollama_app.service.BatchEvaluationService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/batch")
+@CrossOrigin(origins = "http://localhost:3000")
+public class BatchEvaluationController {
+
+    private final BatchEvaluationService batchEvaluationService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public BatchEvaluationController(BatchEvaluationService batchEvaluationService) {
+        this.batchEvaluationService = batchEvaluationService;
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<?> createJob(@RequestBody BatchJobRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(created(batchEvaluationService.createFromDirectory(request)));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Failed to create batch job: " + e.getMessage());
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/jobs/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadJob(
+            @RequestParam("archive") MultipartFile archive,
+            @RequestParam("template") String templateJson,
+            @RequestParam(defaultValue = "true") boolean runTests) {
+        try {
+            TestGenerationRequest template = objectMapper.readValue(templateJson, TestGenerationRequest.class);
+            BatchJob job = batchEvaluationService.createFromArchive(archive.getInputStream(), template, runTests);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(created(job));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Failed to create batch job from archive: " + e.getMessage());
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    @PostMapping("/jobs/{id}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable String id) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(created(batchEvaluationService.resume(id)));
+        } catch (NoSuchElementException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Failed to resume batch job " + id + ": " + e.getMessage());
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id) {
+        try {
+            Optional<BatchJob> job = batchEvaluationService.findJob(id);
+            if (job.isEmpty()) {
+                return error(HttpStatus.NOT_FOUND, "Batch job not found: " + id);
+            }
+            return ResponseEntity.ok(batchEvaluationService.getStatus(job.get()));
+        } catch (Exception e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    @GetMapping("/jobs/{id}/report")
+    public ResponseEntity<?> getReport(@PathVariable String id, @RequestParam(defaultValue = "jsonl") String format) {
+        try {
+            if (batchEvaluationService.findJob(id).isEmpty()) {
+                return error(HttpStatus.NOT_FOUND, "Batch job not found: " + id);
+            }
+            Path report = batchEvaluationService.getReportPath(id, format);
+            if (!Files.exists(report)) {
+                return error(HttpStatus.NOT_FOUND, "Report not found for job: " + id);
+            }
+            MediaType type = "csv".equalsIgnoreCase(format)
+                    ? MediaType.parseMediaType("text/csv")
+                    : MediaType.parseMediaType("application/x-ndjson");
+            return ResponseEntity.ok().contentType(type).body(new FileSystemResource(report));
+        } catch (Exception e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    private Map<String, Object> created(BatchJob job) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "accepted");
+        response.put("jobId", job.getId());
+        response.put("totalContracts", job.getContracts().size());
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "error");
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+}
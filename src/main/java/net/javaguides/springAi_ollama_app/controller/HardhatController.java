@@ -1,12 +1,18 @@
 package net.javaguides.springAi_ollama_app.controller;
 
+import net.javaguides.springAi_ollama_app.dto.CompactTestResult;
+import net.javaguides.springAi_ollama_app.dto.RunRecord;
 import net.javaguides.springAi_ollama_app.dto.TestRequest;
 import net.javaguides.springAi_ollama_app.dto.TestResult;
 import net.javaguides.springAi_ollama_app.service.HardhatService;
+import net.javaguides.springAi_ollama_app.service.RunHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -19,15 +25,23 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 @CrossOrigin(origins = "http://localhost:3000")
 public class HardhatController {
 
+    private static final Logger log = LoggerFactory.getLogger(HardhatController.class);
+
     @Autowired
     private HardhatService hardhatService;
 
+    @Autowired
+    private RunHistoryService runHistoryService;
+
     private final ObjectMapper objectMapper = new ObjectMapper()
             .enable(SerializationFeature.INDENT_OUTPUT);
 
     @PostMapping("/run")
-    public ResponseEntity<Map<String, Object>> runTests(@RequestBody TestRequest request) {
+    public ResponseEntity<?> runTests(@RequestBody TestRequest request,
+                                      @RequestParam(defaultValue = "full") String view,
+                                      @RequestParam(required = false) Integer rawOutputLines) {
         Map<String, Object> response = new LinkedHashMap<>();
+        long start = System.currentTimeMillis();
 
         try {
             System.out.printf("Exécution du contrat Solidity (%d caractères) avec suite de tests (%d caractères)%n",
@@ -38,14 +52,15 @@ public class HardhatController {
                     request.getSolidityCode(),
                     request.getTestCode()
             );
+            long executionMillis = System.currentTimeMillis() - start;
 
-            // Log raw output to terminal first
-            System.out.println("\n=== RAW TEST OUTPUT ===");
-            System.out.println(testResult.getFullOutput());
-            System.out.println("=======================\n");
+            // Raw output is often the bulk of the run; only print it when debugging
+            if (log.isDebugEnabled()) {
+                log.debug("\n=== RAW TEST OUTPUT ===\n{}\n=======================", testResult.getFullOutput());
+            }
 
             // Construction de la réponse structurée
-            response.put("status", "success");
+            response.put("status", testResult.getStatus() == TestResult.Status.TIMEOUT ? "timeout" : "success");
 
             // Section de résumé
             Map<String, Object> summary = new LinkedHashMap<>();
@@ -56,7 +71,7 @@ public class HardhatController {
             summary.put("testsPassed", testResult.getPassedTests());
             summary.put("testsFailed", testResult.getFailedTests());
             summary.put("totalTests", testResult.getPassingTestsCount() + testResult.getFailingTestsCount());
-            response.put("rawOutput", testResult.getFullOutput());
+            putRawOutput(response, testResult.getFullOutput(), rawOutputLines);
             response.put("summary", summary);
 
             // Section de couverture
@@ -67,6 +82,22 @@ public class HardhatController {
             coverage.put("lines", testResult.getCoverageStats().get("lines") + "%");
             response.put("coverage", coverage);
 
+            RunRecord record = new RunRecord(RunRecord.TYPE_EXECUTION);
+            record.setStatus((String) response.get("status"));
+            record.setSolidityCode(request.getSolidityCode());
+            record.setTestCode(request.getTestCode());
+            record.setPassingTestsCount(testResult.getPassingTestsCount());
+            record.setFailingTestsCount(testResult.getFailingTestsCount());
+            record.setCoverage(testResult.getCoverageStats());
+            record.setRawOutput(testResult.getFullOutput());
+            record.addTiming("execution", executionMillis);
+            String runId = runHistoryService.record(record);
+            if (runId != null) response.put("runId", runId);
+
+            if ("compact".equals(view)) {
+                return ResponseEntity.ok(new CompactTestResult(runId, (String) response.get("status"), testResult));
+            }
+
 
 
 
@@ -84,6 +115,16 @@ public class HardhatController {
             response.put("message", "Échec de l'exécution des tests");
             response.put("error", e.getClass().getSimpleName() + ": " + e.getMessage());
 
+            // Failed executions belong in the history as much as successful ones
+            RunRecord record = new RunRecord(RunRecord.TYPE_EXECUTION);
+            record.setStatus("error");
+            record.setSolidityCode(request.getSolidityCode());
+            record.setTestCode(request.getTestCode());
+            record.setError((String) response.get("error"));
+            record.addTiming("execution", System.currentTimeMillis() - start);
+            String runId = runHistoryService.record(record);
+            if (runId != null) response.put("runId", runId);
+
             if (System.getenv("ENV") != null && System.getenv("ENV").equals("dev")) {
                 response.put("debug", Map.of(
                         "solidityCodeLength", request.getSolidityCode().length(),
@@ -91,8 +132,7 @@ public class HardhatController {
                 ));
             }
 
-            // Log error response
-            logResponse("Error response being sent to frontend:", response);
+            logErrorResponse("Error response being sent to frontend:", response);
 
             return ResponseEntity.internalServerError().body(response);
         }
@@ -113,14 +153,43 @@ public class HardhatController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Inlines the raw output, or only its first lines when a limit is given (0 leaves it out).
+     * The complete output is always available from /api/history/runs/{runId}/output.
+     */
+    private void putRawOutput(Map<String, Object> response, String rawOutput, Integer maxLines) {
+        if (maxLines == null) {
+            response.put("rawOutput", rawOutput);
+            return;
+        }
+        String[] lines = rawOutput.split("\n", -1);
+        int shown = Math.max(0, Math.min(maxLines, lines.length));
+        if (shown > 0) {
+            response.put("rawOutput", String.join("\n", Arrays.copyOfRange(lines, 0, shown)));
+        }
+        response.put("rawOutputTotalLines", lines.length);
+        response.put("rawOutputTruncated", shown < lines.length);
+    }
+
     private void logResponse(String message, Object response) {
+        // Pretty-printing a large response costs more than the request itself, so it is debug-only
+        if (!log.isDebugEnabled()) return;
+        try {
+            log.debug("\n{}\n{}\n", message, objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            log.debug("Failed to log response: {}", e.getMessage());
+            log.debug(response.toString());
+        }
+    }
+
+    /**
+     * Error responses carry no raw output and are what an operator needs to see, so they stay at WARN.
+     */
+    private void logErrorResponse(String message, Object response) {
         try {
-            System.out.println("\n" + message);
-            System.out.println(objectMapper.writeValueAsString(response));
-            System.out.println();
+            log.warn("\n{}\n{}\n", message, objectMapper.writeValueAsString(response));
         } catch (JsonProcessingException e) {
-            System.err.println("Failed to log response: " + e.getMessage());
-            System.out.println(response.toString());
+            log.warn("{} {}", message, response);
         }
     }
 }
@@ -1,10 +1,18 @@
 package net.javaguides.springAi_ollama_app.controller;
 
+import net.javaguides.springAi_ollama_app.dto.CoverageIterationRequest;
 import net.javaguides.springAi_ollama_app.dto.TestGenerationRequest;
+import net.javaguides.springAi_ollama_app.service.CoverageGuidedGenerationService;
+import net.javaguides.springAi_ollama_app.service.GenerationEngine;
 import net.javaguides.springAi_ollama_app.service.LLMTestGenerationService;
+import net.javaguides.springAi_ollama_app.service.OllamaWarmupService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -12,14 +20,77 @@ import java.util.Map;
 public class LLMTestGenerationController {
 
     private final LLMTestGenerationService testGenerationService;
+    private final OllamaWarmupService warmupService;
+    private final CoverageGuidedGenerationService coverageGuidedGenerationService;
+    private final GenerationEngine generationEngine;
 
-    public LLMTestGenerationController(LLMTestGenerationService testGenerationService) {
+    public LLMTestGenerationController(LLMTestGenerationService testGenerationService, OllamaWarmupService warmupService,
+                                       CoverageGuidedGenerationService coverageGuidedGenerationService,
+                                       GenerationEngine generationEngine) {
         this.testGenerationService = testGenerationService;
+        this.warmupService = warmupService;
+        this.coverageGuidedGenerationService = coverageGuidedGenerationService;
+        this.generationEngine = generationEngine;
     }
 
     @PostMapping("/generate-test")
     public ResponseEntity<?> generateTest(@RequestBody TestGenerationRequest requestData) {
-        Map<String, Object> response = testGenerationService.generateTestFromPrompt(requestData);
-        return ResponseEntity.ok(response);
+        try {
+            Map<String, Object> response = testGenerationService.generateTestFromPrompt(requestData);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        } catch (IllegalStateException e) {
+            // Every per-function prompt failed; the message carries the error of each one
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @PostMapping("/generate-test/coverage-guided")
+    public ResponseEntity<?> generateCoverageGuided(@RequestBody CoverageIterationRequest iterationRequest) {
+        try {
+            return ResponseEntity.ok(coverageGuidedGenerationService.iterate(iterationRequest));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Coverage-guided generation failed: " + e.getMessage());
+            e.printStackTrace();
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("status", "error");
+            response.put("message", "Coverage-guided generation failed");
+            response.put("error", e.getClass().getSimpleName() + ": " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, Object>> health() {
+        return ResponseEntity.ok(warmupService.getHealth());
+    }
+
+    // Routing order, limits and latency statistics of the generation models
+    @GetMapping("/models")
+    public ResponseEntity<List<Map<String, Object>>> models() {
+        return ResponseEntity.ok(generationEngine.getModels());
+    }
+
+    /**
+     * A body that doesn't bind to the request type, such as a non-numeric functionsPerPrompt.
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> unreadableRequest(HttpMessageNotReadableException e) {
+        Throwable cause = e.getMostSpecificCause();
+        return badRequest("Invalid request body: " + (cause.getMessage() == null ? e.getMessage() : cause.getMessage().split("\n")[0]));
+    }
+
+    private ResponseEntity<Map<String, Object>> badRequest(String message) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", message == null ? "Bad request" : message
+        ));
     }
 }
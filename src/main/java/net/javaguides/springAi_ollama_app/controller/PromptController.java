@@ -1,56 +1,54 @@
 package net.javaguides.springAi_ollama_app.controller;
 
-import org.springframework.ai.chat.model.ChatModel;
+import net.javaguides.springAi_ollama_app.dto.TestGenerationRequest;
+import net.javaguides.springAi_ollama_app.service.LLMTestGenerationService;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 
-import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/prompt")
 public class PromptController {
 
-    private final ChatModel chatModel;
+    private final LLMTestGenerationService testGenerationService;
 
 
-    public PromptController(ChatModel chatModel, HardhatController hardhatController) {
-        this.chatModel = chatModel;
-
+    public PromptController(LLMTestGenerationService testGenerationService) {
+        this.testGenerationService = testGenerationService;
     }
     @PostMapping("/generate-test")
     public ResponseEntity<?> generateTest(@RequestBody Map<String, String> requestData) {
-        String context = requestData.get("context");
-        String generalInstructions = requestData.get("generalInstructions");
-        String requirements = requestData.get("requirements");
-        String exampleTest = requestData.get("exampleTest");
-        String solidityCode = requestData.get("solidityCode");
-        String abiJson = requestData.get("abiJson");
-
-        // Construire dynamiquement le prompt
-        StringBuilder promptBuilder = new StringBuilder();
-        promptBuilder.append(context).append("\n\n");
-        promptBuilder.append("Solidity Code:\n").append(solidityCode).append("\n\n");
-        promptBuilder.append("Instructions:\n").append(generalInstructions).append("\n\n");
-        promptBuilder.append("Requirements:\n").append(requirements).append("\n\n");
-
-        if ( exampleTest != null && !exampleTest.isEmpty()) {
-            promptBuilder.append("Example Test:\n").append(exampleTest).append("\n\n");
+        // Same generation path as /api/llm/generate-test, kept for clients posting a flat string map
+        TestGenerationRequest request = new TestGenerationRequest();
+        request.setContext(requestData.get("context"));
+        request.setGeneralInstructions(requestData.get("generalInstructions"));
+        request.setRequirements(requestData.get("requirements"));
+        request.setExampleTest(requestData.get("exampleTest"));
+        request.setSolidityCode(requestData.get("solidityCode"));
+        request.setMode(requestData.get("mode"));
+        request.setModel(requestData.get("model"));
+        if (requestData.get("functionsPerPrompt") != null) {
+            try {
+                request.setFunctionsPerPrompt(Integer.valueOf(requestData.get("functionsPerPrompt").trim()));
+            } catch (NumberFormatException e) {
+                return badRequest("functionsPerPrompt must be a whole number, got: " + requestData.get("functionsPerPrompt"));
+            }
         }
 
-        String finalPrompt = promptBuilder.toString();
-        System.out.println("Generated Prompt : " + finalPrompt);
-
-        String result = chatModel.call(finalPrompt);
-        System.out.println("Generated Test Code : " + result);
-
-
-        // Combine both generated code and test output in the response
-        Map<String, Object> response = new HashMap<>();
-        response.put("generatedTest", result);
+        try {
+            return ResponseEntity.ok(testGenerationService.generateTestFromPrompt(request));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
 
-        return ResponseEntity.ok(response);
+    private ResponseEntity<Map<String, Object>> badRequest(String message) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", message == null ? "Bad request" : message
+        ));
     }
 
 }
@@ -0,0 +1,94 @@
+package net.javaguides.springAi_ollama_app.controller;
+
+import net.javaguides.springAi_ollama_app.service.RunHistoryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/history")
+@CrossOrigin(origins = "http://localhost:3000")
+public class RunHistoryController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_OUTPUT_LINES = 5000;
+
+    private final RunHistoryService runHistoryService;
+
+    public RunHistoryController(RunHistoryService runHistoryService) {
+        this.runHistoryService = runHistoryService;
+    }
+
+    @GetMapping("/runs")
+    public ResponseEntity<?> listRuns(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String model,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", "error",
+                    "message", "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE
+            ));
+        }
+        return ResponseEntity.ok(runHistoryService.query(type, model, page, size));
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<?> getRun(@PathVariable String id) {
+        try {
+            return runHistoryService.findById(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("status", "error", "message", "Run not found: " + id)));
+        } catch (Exception e) {
+            System.err.println("Failed to read run " + id + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("status", "error", "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Pages through the raw Hardhat output of an execution run, so /api/run can leave it out of its response.
+     */
+    @GetMapping("/runs/{id}/output")
+    public ResponseEntity<?> getRunOutput(@PathVariable String id,
+                                          @RequestParam(defaultValue = "0") int fromLine,
+                                          @RequestParam(defaultValue = "500") int maxLines) {
+        if (fromLine < 0 || maxLines < 1 || maxLines > MAX_OUTPUT_LINES) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", "error",
+                    "message", "fromLine must be >= 0 and maxLines between 1 and " + MAX_OUTPUT_LINES
+            ));
+        }
+        try {
+            String rawOutput = runHistoryService.findById(id).map(record -> record.getRawOutput()).orElse(null);
+            if (rawOutput == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("status", "error", "message", "No output recorded for run: " + id));
+            }
+
+            String[] lines = rawOutput.split("\n", -1);
+            int from = Math.min(fromLine, lines.length);
+            int to = Math.min(from + maxLines, lines.length);
+
+            Map<String, Object> page = new LinkedHashMap<>();
+            page.put("runId", id);
+            page.put("fromLine", from);
+            page.put("lineCount", to - from);
+            page.put("totalLines", lines.length);
+            page.put("nextLine", to < lines.length ? to : null);
+            page.put("output", String.join("\n", Arrays.copyOfRange(lines, from, to)));
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            System.err.println("Failed to read run " + id + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("status", "error", "message", e.getMessage()));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package net.javaguides.springAi_ollama_app.controller;
 
+import net.javaguides.springAi_ollama_app.dto.RunRecord;
+import net.javaguides.springAi_ollama_app.service.RunHistoryService;
 import net.javaguides.springAi_ollama_app.service.TestValidationService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,9 +17,11 @@ import java.util.Map;
 public class TestValidationController {
 
     private final TestValidationService validationService;
+    private final RunHistoryService runHistoryService;
 
-    public TestValidationController(TestValidationService validationService) {
+    public TestValidationController(TestValidationService validationService, RunHistoryService runHistoryService) {
         this.validationService = validationService;
+        this.runHistoryService = runHistoryService;
     }
 
     @PostMapping("/validate")
@@ -35,10 +39,15 @@ public class TestValidationController {
                     testCode.substring(0, 200) + "..." : testCode;
             System.out.println("Code preview:\n" + preview);
 
+            long start = System.currentTimeMillis();
             Map<String, Object> validationResult = validationService.validateTestContent(fileName, testCode);
+            long validationMillis = System.currentTimeMillis() - start;
 
             // Transform the result to match frontend expectations
-            return ResponseEntity.ok().body(transformResult(validationResult));
+            Map<String, Object> transformed = transformResult(validationResult);
+            String runId = recordValidation(fileName, testCode, transformed, validationMillis);
+            if (runId != null) transformed.put("runId", runId);
+            return ResponseEntity.ok().body(transformed);
 
         } catch (Exception e) {
             System.err.println("Validation error: " + e.getMessage());
@@ -53,6 +62,19 @@ public class TestValidationController {
         }
     }
 
+    private String recordValidation(String fileName, String testCode, Map<String, Object> result, long validationMillis) {
+        RunRecord record = new RunRecord(RunRecord.TYPE_VALIDATION);
+        record.setStatus((String) result.get("status"));
+        record.setFileName(fileName);
+        record.setTestCode(testCode);
+        record.setValid(Boolean.TRUE.equals(result.get("valid")));
+        if (result.get("totalErrors") instanceof Number) {
+            record.setTotalErrors(((Number) result.get("totalErrors")).intValue());
+        }
+        record.addTiming("validation", validationMillis);
+        return runHistoryService.record(record);
+    }
+
     private Map<String, Object> transformResult(Map<String, Object> rawResult) {
         Map<String, Object> transformed = new LinkedHashMap<>();
 
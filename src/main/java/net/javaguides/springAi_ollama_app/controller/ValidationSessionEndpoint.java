@@ -0,0 +1,77 @@
+package net.javaguides.springAi_ollama_app.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.Session;
+import net.javaguides.springAi_ollama_app.service.ValidationSessionService;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * WebSocket transport for live validation; the protocol is described on ValidationSessionService.
+ * One instance serves every connection, all per-connection state lives in the service.
+ */
+@Component
+public class ValidationSessionEndpoint extends Endpoint {
+
+    public static final String PATH = "/ws/validation";
+
+    private final ValidationSessionService sessionService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ValidationSessionEndpoint(ValidationSessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        // The open message carries the whole document, JSON-escaped
+        session.setMaxTextMessageBufferSize(sessionService.getMaxDocumentChars() * 2 + 1024);
+        sessionService.register(session.getId(), message -> send(session, message));
+        session.addMessageHandler(String.class, text -> receive(session, text));
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        sessionService.unregister(session.getId());
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        System.err.println("Validation session " + session.getId() + " failed: " + error.getMessage());
+        sessionService.unregister(session.getId());
+    }
+
+    private void receive(Session session, String text) {
+        JsonNode message;
+        try {
+            message = objectMapper.readTree(text);
+        } catch (IOException e) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("type", "error");
+            error.put("message", "Malformed message: " + e.getMessage());
+            send(session, error);
+            return;
+        }
+        sessionService.handle(session.getId(), message);
+    }
+
+    private void send(Session session, Map<String, Object> message) {
+        if (!session.isOpen()) return;
+        try {
+            String json = objectMapper.writeValueAsString(message);
+            // The basic remote does not allow overlapping sends from the debounce and message threads
+            synchronized (session) {
+                session.getBasicRemote().sendText(json);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to send to validation session " + session.getId() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package net.javaguides.springAi_ollama_app.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AssembledPrompt {
+    private final String prompt;
+    private final int estimatedTokens;
+    private final int tokenBudget;
+    private final List<String> reductions;
+
+    public AssembledPrompt(String prompt, int estimatedTokens, int tokenBudget, List<String> reductions) {
+        this.prompt = prompt;
+        this.estimatedTokens = estimatedTokens;
+        this.tokenBudget = tokenBudget;
+        this.reductions = reductions;
+    }
+
+    public String getPrompt() {
+        return prompt;
+    }
+
+    public int getEstimatedTokens() {
+        return estimatedTokens;
+    }
+
+    public int getTokenBudget() {
+        return tokenBudget;
+    }
+
+    public List<String> getReductions() {
+        return reductions;
+    }
+
+    public boolean isOverBudget() {
+        return estimatedTokens > tokenBudget;
+    }
+
+    // Size report included in generation responses
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("promptChars", prompt.length());
+        stats.put("estimatedTokens", estimatedTokens);
+        stats.put("tokenBudget", tokenBudget);
+        stats.put("reductions", reductions);
+        stats.put("overBudget", isOverBudget());
+        return stats;
+    }
+}
@@ -0,0 +1,74 @@
+package net.javaguides.springAi_ollama_app.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manifest of a batch evaluation job, persisted as job.json in the job directory.
+ */
+public class BatchJob {
+    private String id;
+    private long createdAt;
+    private Long completedAt;
+    private String contractsRoot;
+    private List<String> contracts = new ArrayList<>();
+    private TestGenerationRequest template;
+    private boolean runTests;
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Long completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getContractsRoot() {
+        return contractsRoot;
+    }
+
+    public void setContractsRoot(String contractsRoot) {
+        this.contractsRoot = contractsRoot;
+    }
+
+    public List<String> getContracts() {
+        return contracts;
+    }
+
+    public void setContracts(List<String> contracts) {
+        this.contracts = contracts;
+    }
+
+    public TestGenerationRequest getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(TestGenerationRequest template) {
+        this.template = template;
+    }
+
+    public boolean isRunTests() {
+        return runTests;
+    }
+
+    public void setRunTests(boolean runTests) {
+        this.runTests = runTests;
+    }
+}
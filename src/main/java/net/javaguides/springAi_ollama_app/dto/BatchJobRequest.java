@@ -0,0 +1,42 @@
+package net.javaguides.springAi_ollama_app.dto;
+
+import javax.validation.constraints.NotNull;
+
+
+public class BatchJobRequest {
+
+    // Directory on the server scanned recursively for .sol files
+    private String contractsDirectory;
+
+    // Prompt template; its solidityCode is replaced by each contract's source
+    @NotNull
+    private TestGenerationRequest template;
+
+    private boolean runTests = true;
+
+
+    // Getters and Setters
+    public String getContractsDirectory() {
+        return contractsDirectory;
+    }
+
+    public void setContractsDirectory(String contractsDirectory) {
+        this.contractsDirectory = contractsDirectory;
+    }
+
+    public TestGenerationRequest getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(TestGenerationRequest template) {
+        this.template = template;
+    }
+
+    public boolean isRunTests() {
+        return runTests;
+    }
+
+    public void setRunTests(boolean runTests) {
+        this.runTests = runTests;
+    }
+}
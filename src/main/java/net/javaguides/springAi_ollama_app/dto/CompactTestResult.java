@@ -0,0 +1,62 @@
+package net.javaguides.springAi_ollama_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Short form of a run for clients that only need the numbers: no raw output, no passing test titles,
+ * and coverage as plain numbers. The raw output stays available from the run history by runId.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactTestResult {
+    private final String runId;
+    private final String status;
+    private final int passing;
+    private final int failing;
+    private final List<String> failedTests;
+    // statements, branches, functions, lines (percent)
+    private final double[] coverage;
+
+    public CompactTestResult(String runId, String status, TestResult result) {
+        this.runId = runId;
+        this.status = status;
+        this.passing = result.getPassingTestsCount();
+        this.failing = result.getFailingTestsCount();
+        this.failedTests = result.getFailedTests().isEmpty() ? null : result.getFailedTests();
+        this.coverage = new double[]{
+                percentage(result, "statements"),
+                percentage(result, "branches"),
+                percentage(result, "functions"),
+                percentage(result, "lines")
+        };
+    }
+
+    private static double percentage(TestResult result, String metric) {
+        return Double.parseDouble(result.getCoverageStats().getOrDefault(metric, "0.00").replace(',', '.'));
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getPassing() {
+        return passing;
+    }
+
+    public int getFailing() {
+        return failing;
+    }
+
+    public List<String> getFailedTests() {
+        return failedTests;
+    }
+
+    public double[] getCoverage() {
+        return coverage;
+    }
+}
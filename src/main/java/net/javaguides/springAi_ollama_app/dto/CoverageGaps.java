@@ -0,0 +1,59 @@
+package net.javaguides.springAi_ollama_app.dto;
+
+import java.util.List;
+
+/**
+ * What a run left uncovered, as extracted from coverage-final.json. Line numbers refer to the submitted contract.
+ */
+public class CoverageGaps {
+    private final List<Integer> uncoveredLines;
+    private final List<UncoveredBranch> uncoveredBranches;
+    private final List<String> uncoveredFunctions;
+
+    public CoverageGaps(List<Integer> uncoveredLines, List<UncoveredBranch> uncoveredBranches, List<String> uncoveredFunctions) {
+        this.uncoveredLines = uncoveredLines;
+        this.uncoveredBranches = uncoveredBranches;
+        this.uncoveredFunctions = uncoveredFunctions;
+    }
+
+    public static class UncoveredBranch {
+        private final int line;
+        private final String type;
+        // Index of the arm never taken: 0 is the "if"/true side, 1 the "else"/false side
+        private final int arm;
+
+        public UncoveredBranch(int line, String type, int arm) {
+            this.line = line;
+            this.type = type;
+            this.arm = arm;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getArm() {
+            return arm;
+        }
+    }
+
+    public List<Integer> getUncoveredLines() {
+        return uncoveredLines;
+    }
+
+    public List<UncoveredBranch> getUncoveredBranches() {
+        return uncoveredBranches;
+    }
+
+    public List<String> getUncoveredFunctions() {
+        return uncoveredFunctions;
+    }
+
+    public boolean isEmpty() {
+        return uncoveredLines.isEmpty() && uncoveredBranches.isEmpty() && uncoveredFunctions.isEmpty();
+    }
+}
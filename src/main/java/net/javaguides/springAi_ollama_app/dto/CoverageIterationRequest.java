@@ -0,0 +1,53 @@
+package net.javaguides.springAi_ollama_app.dto;
+
+import javax.validation.constraints.NotNull;
+
+
+public class CoverageIterationRequest {
+
+    @NotNull
+    private TestGenerationRequest request;
+
+    // Existing test file to start from; generated from the request when absent
+    private String initialTestCode;
+
+    // Branch coverage percentage at which iteration stops
+    private Double targetBranchCoverage;
+
+    // Follow-up generation rounds after the first run
+    private Integer maxIterations;
+
+
+    // Getters and Setters
+    public TestGenerationRequest getRequest() {
+        return request;
+    }
+
+    public void setRequest(TestGenerationRequest request) {
+        this.request = request;
+    }
+
+    public String getInitialTestCode() {
+        return initialTestCode;
+    }
+
+    public void setInitialTestCode(String initialTestCode) {
+        this.initialTestCode = initialTestCode;
+    }
+
+    public Double getTargetBranchCoverage() {
+        return targetBranchCoverage;
+    }
+
+    public void setTargetBranchCoverage(Double targetBranchCoverage) {
+        this.targetBranchCoverage = targetBranchCoverage;
+    }
+
+    public Integer getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(Integer maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+}
@@ -0,0 +1,37 @@
+package net.javaguides.springAi_ollama_app.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class GenerationResult {
+    private final String text;
+    private final String model;
+    private final long generationMillis;
+    private final List<Map<String, Object>> attempts;
+
+    public GenerationResult(String text, String model, long generationMillis, List<Map<String, Object>> attempts) {
+        this.text = text;
+        this.model = model;
+        this.generationMillis = generationMillis;
+        this.attempts = attempts;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    // Model that produced the answer
+    public String getModel() {
+        return model;
+    }
+
+    // Total time including abandoned attempts
+    public long getGenerationMillis() {
+        return generationMillis;
+    }
+
+    // One entry per model tried, in order: model, outcome (success, timeout, error) and elapsed ms
+    public List<Map<String, Object>> getAttempts() {
+        return attempts;
+    }
+}
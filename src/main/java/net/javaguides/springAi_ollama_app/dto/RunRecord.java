@@ -0,0 +1,216 @@
+package net.javaguides.springAi_ollama_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RunRecord {
+
+    public static final String TYPE_GENERATION = "generation";
+    public static final String TYPE_VALIDATION = "validation";
+    public static final String TYPE_EXECUTION = "execution";
+
+    private String id;
+    private String type;
+    private long createdAt;
+    private String model;
+    private String status;
+
+    // Prompt fields
+    private String context;
+    private String generalInstructions;
+    private String requirements;
+    private String exampleTest;
+    private String solidityCode;
+
+    // Generated or submitted test
+    private String fileName;
+    private String testCode;
+
+    // Validation results
+    private Boolean valid;
+    private Integer totalErrors;
+
+    // Execution results
+    private Integer passingTestsCount;
+    private Integer failingTestsCount;
+    private Map<String, String> coverage;
+    private String rawOutput;
+    private String error;
+
+    private Map<String, Long> timings = new LinkedHashMap<>();
+
+    public RunRecord() {
+    }
+
+    public RunRecord(String type) {
+        this.type = type;
+    }
+
+    public void addTiming(String stage, long millis) {
+        timings.put(stage, millis);
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public void setContext(String context) {
+        this.context = context;
+    }
+
+    public String getGeneralInstructions() {
+        return generalInstructions;
+    }
+
+    public void setGeneralInstructions(String generalInstructions) {
+        this.generalInstructions = generalInstructions;
+    }
+
+    public String getRequirements() {
+        return requirements;
+    }
+
+    public void setRequirements(String requirements) {
+        this.requirements = requirements;
+    }
+
+    public String getExampleTest() {
+        return exampleTest;
+    }
+
+    public void setExampleTest(String exampleTest) {
+        this.exampleTest = exampleTest;
+    }
+
+    public String getSolidityCode() {
+        return solidityCode;
+    }
+
+    public void setSolidityCode(String solidityCode) {
+        this.solidityCode = solidityCode;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getTestCode() {
+        return testCode;
+    }
+
+    public void setTestCode(String testCode) {
+        this.testCode = testCode;
+    }
+
+    public Boolean getValid() {
+        return valid;
+    }
+
+    public void setValid(Boolean valid) {
+        this.valid = valid;
+    }
+
+    public Integer getTotalErrors() {
+        return totalErrors;
+    }
+
+    public void setTotalErrors(Integer totalErrors) {
+        this.totalErrors = totalErrors;
+    }
+
+    public Integer getPassingTestsCount() {
+        return passingTestsCount;
+    }
+
+    public void setPassingTestsCount(Integer passingTestsCount) {
+        this.passingTestsCount = passingTestsCount;
+    }
+
+    public Integer getFailingTestsCount() {
+        return failingTestsCount;
+    }
+
+    public void setFailingTestsCount(Integer failingTestsCount) {
+        this.failingTestsCount = failingTestsCount;
+    }
+
+    public Map<String, String> getCoverage() {
+        return coverage;
+    }
+
+    public void setCoverage(Map<String, String> coverage) {
+        this.coverage = coverage;
+    }
+
+    public String getRawOutput() {
+        return rawOutput;
+    }
+
+    public void setRawOutput(String rawOutput) {
+        this.rawOutput = rawOutput;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Map<String, Long> getTimings() {
+        return timings;
+    }
+
+    public void setTimings(Map<String, Long> timings) {
+        this.timings = timings;
+    }
+}
@@ -19,12 +19,25 @@ public class TestGenerationRequest {
     @NotNull
     private String solidityCode;
 
+    // "single" (default) or "per-function"
+    private String mode;
+
+    // Functions covered by each prompt in per-function mode
+    private Integer functionsPerPrompt;
+
+    // Explicit model name; when absent the model is chosen by contract size
+    private String model;
+
 
     // Getters and Setters
     public String getContext() {
         return context;
     }
 
+    public void setContext(String context) {
+        this.context = context;
+    }
+
 
     public String getGeneralInstructions() {
         return generalInstructions;
@@ -58,4 +71,28 @@ public class TestGenerationRequest {
         this.solidityCode = solidityCode;
     }
 
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public Integer getFunctionsPerPrompt() {
+        return functionsPerPrompt;
+    }
+
+    public void setFunctionsPerPrompt(Integer functionsPerPrompt) {
+        this.functionsPerPrompt = functionsPerPrompt;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
 }
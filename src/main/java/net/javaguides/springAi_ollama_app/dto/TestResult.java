@@ -5,6 +5,13 @@ import java.util.List;
 import java.util.Map;
 
 public class TestResult {
+
+    public enum Status {
+        COMPLETED,
+        TIMEOUT
+    }
+
+    private final Status status;
     private final String fullOutput;
 
     private final Map<String, String> coverageStats;
@@ -12,14 +19,29 @@ public class TestResult {
     private final int failingTestsCount;
     private final List<String> passedTests;
     private final List<String> failedTests;
+    private final CoverageGaps coverageGaps;
 
     public TestResult(String fullOutput, Map<String, String> coverageStats, int passingTestsCount, int failingTestsCount, List<String> passedTests, List<String> failedTests) {
+        this(Status.COMPLETED, fullOutput, coverageStats, passingTestsCount, failingTestsCount, passedTests, failedTests);
+    }
+
+    public TestResult(Status status, String fullOutput, Map<String, String> coverageStats, int passingTestsCount, int failingTestsCount, List<String> passedTests, List<String> failedTests) {
+        this(status, fullOutput, coverageStats, passingTestsCount, failingTestsCount, passedTests, failedTests, null);
+    }
+
+    public TestResult(Status status, String fullOutput, Map<String, String> coverageStats, int passingTestsCount, int failingTestsCount, List<String> passedTests, List<String> failedTests, CoverageGaps coverageGaps) {
+        this.status = status;
         this.fullOutput = fullOutput;
         this.coverageStats = coverageStats;
         this.passingTestsCount = passingTestsCount;
         this.failingTestsCount = failingTestsCount;
         this.passedTests = passedTests;
         this.failedTests = failedTests;
+        this.coverageGaps = coverageGaps;
+    }
+
+    public Status getStatus() {
+        return status;
     }
 
     public String getFullOutput() {
@@ -45,5 +67,10 @@ public class TestResult {
     public List<String> getFailedTests() {
         return failedTests;
     }
+
+    // Null when the run produced no coverage report
+    public CoverageGaps getCoverageGaps() {
+        return coverageGaps;
+    }
 }
 
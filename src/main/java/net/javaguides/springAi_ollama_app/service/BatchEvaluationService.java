@@ -0,0 +1,470 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import net.javaguides.springAi_ollama_app.dto.BatchJob;
+import net.javaguides.springAi_ollama_app.dto.BatchJobRequest;
+import net.javaguides.springAi_ollama_app.dto.TestGenerationRequest;
+import net.javaguides.springAi_ollama_app.dto.TestResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Runs generation, validation and execution over a whole corpus of contracts.
+ * Each job lives in its own directory; results.jsonl doubles as the checkpoint used to resume after a crash.
+ */
+@Service
+public class BatchEvaluationService {
+    private static final String MANIFEST_FILE = "job.json";
+    private static final String RESULTS_JSONL = "results.jsonl";
+    private static final String RESULTS_CSV = "results.csv";
+    private static final List<String> CSV_COLUMNS = List.of(
+            "contract", "status", "error", "valid", "totalErrors", "passingTestsCount", "failingTestsCount",
+            "statements", "branches", "functions", "lines", "generationMs", "validationMs", "executionMs", "model");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LLMTestGenerationService generationService;
+    private final TestValidationService validationService;
+    private final HardhatService hardhatService;
+    private final Path jobsPath;
+    private final ExecutorService generationPool;
+    private final ExecutorService validationPool;
+    private final ExecutorService executionPool;
+    private final int maxInFlight;
+    private final Map<String, BatchJob> activeJobs = new ConcurrentHashMap<>();
+
+    public BatchEvaluationService(LLMTestGenerationService generationService,
+                                  TestValidationService validationService,
+                                  HardhatService hardhatService,
+                                  @Value("${batch.jobs.path:batch-jobs}") String jobsPath,
+                                  @Value("${batch.generation.parallelism:2}") int generationParallelism,
+                                  @Value("${batch.validation.parallelism:4}") int validationParallelism,
+                                  @Value("${batch.execution.parallelism:1}") int executionParallelism,
+                                  @Value("${batch.max-in-flight:8}") int maxInFlight) {
+        this.generationService = generationService;
+        this.validationService = validationService;
+        this.hardhatService = hardhatService;
+        this.jobsPath = Paths.get(jobsPath).toAbsolutePath();
+        this.generationPool = Executors.newFixedThreadPool(generationParallelism);
+        this.validationPool = Executors.newFixedThreadPool(validationParallelism);
+        this.executionPool = Executors.newFixedThreadPool(executionParallelism);
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Contracts in flight are interrupted or rejected; evaluate() writes nothing for them, so resume picks them up
+        generationPool.shutdownNow();
+        validationPool.shutdownNow();
+        executionPool.shutdownNow();
+    }
+
+    public BatchJob createFromDirectory(BatchJobRequest request) throws IOException {
+        if (request.getContractsDirectory() == null) {
+            throw new IllegalArgumentException("contractsDirectory is required");
+        }
+        Path root = Paths.get(request.getContractsDirectory()).toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Contracts directory not found: " + root);
+        }
+        return createJob(UUID.randomUUID().toString(), root, request.getTemplate(), request.isRunTests());
+    }
+
+    public BatchJob createFromArchive(InputStream archive, TestGenerationRequest template, boolean runTests) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path root = jobsPath.resolve(id).resolve("contracts");
+        extractSolidityFiles(archive, root);
+        return createJob(id, root, template, runTests);
+    }
+
+    public BatchJob resume(String id) throws IOException {
+        BatchJob job = findJob(id).orElseThrow(() -> new NoSuchElementException("Batch job not found: " + id));
+        if (job.getCompletedAt() != null) {
+            throw new IllegalStateException("Batch job is already completed: " + id);
+        }
+        // Two concurrent resumes must not both append to results.jsonl
+        if (activeJobs.putIfAbsent(id, job) != null) {
+            throw new IllegalStateException("Batch job is already running: " + id);
+        }
+        start(job);
+        return job;
+    }
+
+    public Optional<BatchJob> findJob(String id) throws IOException {
+        if (!isValidJobId(id)) return Optional.empty();
+
+        Path manifest = jobsPath.resolve(id).resolve(MANIFEST_FILE);
+        if (!Files.exists(manifest)) return Optional.empty();
+        return Optional.of(objectMapper.readValue(manifest.toFile(), BatchJob.class));
+    }
+
+    public Map<String, Object> getStatus(BatchJob job) throws IOException {
+        Map<String, Long> byStatus = readResults(job.getId()).stream()
+                .collect(Collectors.groupingBy(r -> String.valueOf(r.get("status")), LinkedHashMap::new, Collectors.counting()));
+        long processed = byStatus.values().stream().mapToLong(Long::longValue).sum();
+
+        String state;
+        if (activeJobs.containsKey(job.getId())) state = "RUNNING";
+        else if (job.getCompletedAt() != null) state = "COMPLETED";
+        else state = "INTERRUPTED";
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.getId());
+        status.put("state", state);
+        status.put("totalContracts", job.getContracts().size());
+        status.put("processedContracts", processed);
+        status.put("byStatus", byStatus);
+        status.put("createdAt", job.getCreatedAt());
+        status.put("completedAt", job.getCompletedAt());
+        return status;
+    }
+
+    public Path getReportPath(String id, String format) {
+        return jobsPath.resolve(id).resolve("csv".equalsIgnoreCase(format) ? RESULTS_CSV : RESULTS_JSONL);
+    }
+
+    private BatchJob createJob(String id, Path root, TestGenerationRequest template, boolean runTests) throws IOException {
+        if (template == null) {
+            throw new IllegalArgumentException("template is required");
+        }
+
+        List<String> contracts;
+        try (Stream<Path> files = Files.walk(root)) {
+            contracts = files
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.toString().endsWith(".sol"))
+                    .map(path -> root.relativize(path).toString().replace('\\', '/'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        if (contracts.isEmpty()) {
+            throw new IllegalArgumentException("No .sol files found in " + root);
+        }
+
+        BatchJob job = new BatchJob();
+        job.setId(id);
+        job.setCreatedAt(System.currentTimeMillis());
+        job.setContractsRoot(root.toString());
+        job.setContracts(contracts);
+        job.setTemplate(template);
+        job.setRunTests(runTests);
+
+        Path jobDir = jobsPath.resolve(id);
+        Files.createDirectories(jobDir);
+        writeManifest(job);
+        Files.writeString(jobDir.resolve(RESULTS_CSV), String.join(",", CSV_COLUMNS) + "\n");
+        Files.createFile(jobDir.resolve(RESULTS_JSONL));
+
+        activeJobs.put(id, job);
+        start(job);
+        return job;
+    }
+
+    /**
+     * Evaluates the contracts that have no result yet. The caller has already claimed the job in activeJobs.
+     */
+    private void start(BatchJob job) throws IOException {
+        Queue<String> pending;
+        int done;
+        try {
+            List<Map<String, Object>> results = readResults(job.getId());
+            Set<String> doneContracts = results.stream()
+                    .map(r -> String.valueOf(r.get("contract")))
+                    .collect(Collectors.toSet());
+            rewriteCsv(job, results);
+            pending = job.getContracts().stream()
+                    .filter(contract -> !doneContracts.contains(contract))
+                    .collect(Collectors.toCollection(ConcurrentLinkedQueue::new));
+            done = doneContracts.size();
+        } catch (IOException | RuntimeException e) {
+            activeJobs.remove(job.getId());
+            throw e;
+        }
+
+        System.out.printf("Starting batch job %s: %d contracts, %d already done%n",
+                job.getId(), job.getContracts().size(), done);
+
+        if (pending.isEmpty()) {
+            finish(job);
+            return;
+        }
+        // A bounded window: generated tests for the whole corpus must not pile up behind the execution pool
+        AtomicInteger remaining = new AtomicInteger(pending.size());
+        for (int i = 0; i < maxInFlight; i++) {
+            dispatchNext(job, pending, remaining);
+        }
+    }
+
+    /**
+     * Starts the next pending contract; each one that finishes starts the next, and the last one finishes the job.
+     */
+    private void dispatchNext(BatchJob job, Queue<String> pending, AtomicInteger remaining) {
+        String contract = pending.poll();
+        if (contract == null) return;
+
+        CompletableFuture<Void> evaluation;
+        try {
+            evaluation = evaluate(job, contract);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: this contract and everything still queued stay unprocessed for resume
+            int dropped = 1;
+            while (pending.poll() != null) dropped++;
+            if (remaining.addAndGet(-dropped) == 0) finish(job);
+            return;
+        }
+        evaluation.whenComplete((ignored, error) -> {
+            if (remaining.decrementAndGet() == 0) finish(job);
+            else dispatchNext(job, pending, remaining);
+        });
+    }
+
+    private CompletableFuture<Void> evaluate(BatchJob job, String contract) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("contract", contract);
+
+        return CompletableFuture
+                .runAsync(() -> generate(job, contract, result), generationPool)
+                .thenRunAsync(() -> validate(result), validationPool)
+                .thenRunAsync(() -> execute(job, contract, result), executionPool)
+                .handle((ignored, e) -> {
+                    if (e == null) return true;
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (isInterruption(cause)) {
+                        // Not a result of the contract: leave it out of the checkpoint so resume evaluates it again
+                        System.out.printf("Batch job %s: %s interrupted, left for resume%n", job.getId(), contract);
+                        return false;
+                    }
+                    result.put("status", "error");
+                    result.put("error", cause.getClass().getSimpleName() + ": " + cause.getMessage());
+                    return true;
+                })
+                .thenAccept(completed -> {
+                    if (completed) writeResult(job, result);
+                });
+    }
+
+    /**
+     * Shutdown shows up as an interrupted stage or as a stage rejected by a pool that is already shut down.
+     */
+    private static boolean isInterruption(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException
+                    || cause instanceof RejectedExecutionException
+                    || cause instanceof InterruptedException
+                    || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void generate(BatchJob job, String contract, Map<String, Object> result) {
+        TestGenerationRequest template = job.getTemplate();
+        TestGenerationRequest request = new TestGenerationRequest();
+        request.setContext(template.getContext());
+        request.setGeneralInstructions(template.getGeneralInstructions());
+        request.setRequirements(template.getRequirements());
+        request.setExampleTest(template.getExampleTest());
+        request.setMode(template.getMode());
+        request.setFunctionsPerPrompt(template.getFunctionsPerPrompt());
+        request.setModel(template.getModel());
+        request.setSolidityCode(readContract(job, contract));
+
+        long start = System.currentTimeMillis();
+        Map<String, Object> response = generationService.generateTestFromPrompt(request);
+        result.put("generationMs", System.currentTimeMillis() - start);
+        result.put("runId", response.get("runId"));
+        result.put("model", response.get("model"));
+
+        String testCode = TestCodeExtractor.extractJavaScriptCode((String) response.get("generatedTest"));
+        result.put("generatedTest", testCode);
+        if (testCode.isEmpty()) {
+            result.put("status", "invalid");
+            result.put("error", "No JavaScript code block in LLM output");
+        }
+    }
+
+    private void validate(Map<String, Object> result) {
+        if (result.containsKey("status")) return;
+
+        long start = System.currentTimeMillis();
+        Map<String, Object> validation;
+        try {
+            validation = validationService.validateTestContent((String) result.get("contract"), (String) result.get("generatedTest"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Validation interrupted");
+        }
+        result.put("validationMs", System.currentTimeMillis() - start);
+        result.put("valid", Boolean.TRUE.equals(validation.get("valid")));
+        result.put("totalErrors", validation.get("totalErrors"));
+
+        if (!Boolean.TRUE.equals(validation.get("valid"))) {
+            result.put("status", "invalid");
+        }
+    }
+
+    private void execute(BatchJob job, String contract, Map<String, Object> result) {
+        if (result.containsKey("status")) return;
+        if (!job.isRunTests()) {
+            result.put("status", "success");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        TestResult testResult;
+        try {
+            testResult = hardhatService.runTestsWithCoverage(readContract(job, contract), (String) result.get("generatedTest"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Execution interrupted");
+        }
+        result.put("executionMs", System.currentTimeMillis() - start);
+        result.put("status", testResult.getStatus() == TestResult.Status.TIMEOUT ? "timeout" : "success");
+        result.put("passingTestsCount", testResult.getPassingTestsCount());
+        result.put("failingTestsCount", testResult.getFailingTestsCount());
+        result.putAll(testResult.getCoverageStats());
+    }
+
+    private void writeResult(BatchJob job, Map<String, Object> result) {
+        Path jobDir = jobsPath.resolve(job.getId());
+        String csvLine = toCsvLine(result);
+
+        synchronized (job) {
+            try {
+                // The JSONL line is the checkpoint and goes first; the CSV is rebuilt from it on resume
+                Files.writeString(jobDir.resolve(RESULTS_JSONL), objectMapper.writeValueAsString(result) + "\n",
+                        StandardOpenOption.APPEND);
+                Files.writeString(jobDir.resolve(RESULTS_CSV), csvLine, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Failed to write batch result for " + result.get("contract") + ": " + e.getMessage());
+            }
+        }
+        System.out.printf("Batch job %s: %s -> %s%n", job.getId(), result.get("contract"), result.get("status"));
+    }
+
+    /**
+     * Regenerates results.csv from the checkpoint, so a crash between the two appends cannot leave
+     * missing or duplicated rows.
+     */
+    private void rewriteCsv(BatchJob job, List<Map<String, Object>> results) throws IOException {
+        StringBuilder csv = new StringBuilder(String.join(",", CSV_COLUMNS)).append("\n");
+        results.forEach(result -> csv.append(toCsvLine(result)));
+        synchronized (job) {
+            Files.writeString(jobsPath.resolve(job.getId()).resolve(RESULTS_CSV), csv.toString());
+        }
+    }
+
+    private String toCsvLine(Map<String, Object> result) {
+        return CSV_COLUMNS.stream()
+                .map(column -> escapeCsv(result.get(column)))
+                .collect(Collectors.joining(",")) + "\n";
+    }
+
+    private void finish(BatchJob job) {
+        try {
+            // Contracts interrupted by a shutdown have no result yet; the job then stays resumable
+            Set<String> done = readResults(job.getId()).stream()
+                    .map(r -> String.valueOf(r.get("contract")))
+                    .collect(Collectors.toSet());
+            if (!done.containsAll(job.getContracts())) {
+                System.out.println("Batch job interrupted before completion: " + job.getId());
+                return;
+            }
+            job.setCompletedAt(System.currentTimeMillis());
+            writeManifest(job);
+            System.out.println("Batch job completed: " + job.getId());
+        } catch (IOException e) {
+            System.err.println("Failed to mark batch job " + job.getId() + " as completed: " + e.getMessage());
+        } finally {
+            activeJobs.remove(job.getId());
+        }
+    }
+
+    private List<Map<String, Object>> readResults(String id) throws IOException {
+        Path results = jobsPath.resolve(id).resolve(RESULTS_JSONL);
+        List<Map<String, Object>> parsed = new ArrayList<>();
+        if (!Files.exists(results)) return parsed;
+
+        try (BufferedReader reader = Files.newBufferedReader(results, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    parsed.add(objectMapper.readValue(line, Map.class));
+                } catch (IOException e) {
+                    // Truncated line from a crash; that contract is evaluated again on resume
+                    System.err.println("Skipping unreadable batch result in job " + id);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private String readContract(BatchJob job, String contract) {
+        try {
+            return Files.readString(Paths.get(job.getContractsRoot()).resolve(contract));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeManifest(BatchJob job) throws IOException {
+        objectMapper.writeValue(jobsPath.resolve(job.getId()).resolve(MANIFEST_FILE).toFile(), job);
+    }
+
+    private void extractSolidityFiles(InputStream archive, Path target) throws IOException {
+        Files.createDirectories(target);
+        try (ZipInputStream zip = new ZipInputStream(archive)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || !entry.getName().endsWith(".sol")) continue;
+
+                Path file = target.resolve(entry.getName()).normalize();
+                if (!file.startsWith(target)) {
+                    throw new IOException("Archive entry escapes the job directory: " + entry.getName());
+                }
+                Files.createDirectories(file.getParent());
+                Files.copy(zip, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private boolean isValidJobId(String id) {
+        try {
+            return UUID.fromString(id).toString().equals(id);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,294 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import net.javaguides.springAi_ollama_app.dto.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a test file, asks the model for tests aimed only at what the coverage report shows as missed,
+ * merges them in and re-runs, until the target branch coverage or the iteration cap is reached. A round is kept
+ * only if it raises coverage without failing more tests or losing a test that passed before.
+ */
+@Service
+public class CoverageGuidedGenerationService {
+
+    private static final int MAX_LISTED_LINES = 40;
+
+    private final LLMTestGenerationService generationService;
+    private final HardhatService hardhatService;
+    private final TestValidationService validationService;
+    private final PromptAssembler promptAssembler;
+    private final GenerationEngine generationEngine;
+    private final RunHistoryService runHistoryService;
+    private final double defaultTargetBranchCoverage;
+    private final int defaultMaxIterations;
+
+    public CoverageGuidedGenerationService(LLMTestGenerationService generationService,
+                                           HardhatService hardhatService,
+                                           TestValidationService validationService,
+                                           PromptAssembler promptAssembler,
+                                           GenerationEngine generationEngine,
+                                           RunHistoryService runHistoryService,
+                                           @Value("${coverage.iteration.target-branch-coverage:90}") double defaultTargetBranchCoverage,
+                                           @Value("${coverage.iteration.max-iterations:3}") int defaultMaxIterations) {
+        this.generationService = generationService;
+        this.hardhatService = hardhatService;
+        this.validationService = validationService;
+        this.promptAssembler = promptAssembler;
+        this.generationEngine = generationEngine;
+        this.runHistoryService = runHistoryService;
+        this.defaultTargetBranchCoverage = defaultTargetBranchCoverage;
+        this.defaultMaxIterations = defaultMaxIterations;
+    }
+
+    public Map<String, Object> iterate(CoverageIterationRequest iterationRequest) throws IOException, InterruptedException {
+        TestGenerationRequest request = iterationRequest.getRequest();
+        if (request == null) {
+            throw new IllegalArgumentException("request is required");
+        }
+        if (request.getSolidityCode() == null || request.getSolidityCode().isBlank()) {
+            throw new IllegalArgumentException("request.solidityCode is required");
+        }
+        generationEngine.requireKnownModel(request.getModel());
+        double target = iterationRequest.getTargetBranchCoverage() != null
+                ? iterationRequest.getTargetBranchCoverage() : defaultTargetBranchCoverage;
+        int maxIterations = iterationRequest.getMaxIterations() != null
+                ? iterationRequest.getMaxIterations() : defaultMaxIterations;
+        if (!(target >= 0 && target <= 100)) {
+            throw new IllegalArgumentException("targetBranchCoverage must be between 0 and 100");
+        }
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("maxIterations must not be negative");
+        }
+
+        String testCode = iterationRequest.getInitialTestCode();
+        if (testCode == null || testCode.isBlank()) {
+            Map<String, Object> generated = generationService.generateTestFromPrompt(request);
+            testCode = TestCodeExtractor.extractJavaScriptCode((String) generated.get("generatedTest"));
+            if (testCode.isEmpty()) {
+                throw new IllegalStateException("The model did not return a JavaScript code block");
+            }
+        }
+
+        String describeTitle = mainContractName(request.getSolidityCode());
+        String[] sourceLines = request.getSolidityCode().split("\n", -1);
+        List<Map<String, Object>> rounds = new ArrayList<>();
+
+        long start = System.currentTimeMillis();
+        TestResult result = hardhatService.runTestsWithCoverage(request.getSolidityCode(), testCode);
+        Map<String, Object> firstRound = new LinkedHashMap<>();
+        firstRound.put("iteration", 0);
+        firstRound.put("executionMs", System.currentTimeMillis() - start);
+        firstRound.put("accepted", true);
+        describeResult(firstRound, result);
+        rounds.add(firstRound);
+        recordExecution(request, testCode, result, (Long) firstRound.get("executionMs"));
+
+        String stopReason;
+        for (int iteration = 1; ; iteration++) {
+            if (result.getStatus() == TestResult.Status.TIMEOUT) {
+                stopReason = "timeout";
+                break;
+            }
+            if (percentage(result, "branches") >= target) {
+                stopReason = "targetReached";
+                break;
+            }
+            if (result.getCoverageGaps() == null || result.getCoverageGaps().isEmpty()) {
+                stopReason = "nothingUncovered";
+                break;
+            }
+            if (iteration > maxIterations) {
+                stopReason = "maxIterations";
+                break;
+            }
+
+            Map<String, Object> round = new LinkedHashMap<>();
+            round.put("iteration", iteration);
+            rounds.add(round);
+
+            AssembledPrompt prompt = promptAssembler.assembleWithFocus(request, describeGaps(result, sourceLines));
+            GenerationResult generation = generationEngine.generate(prompt.getPrompt(), request);
+            round.put("generationMs", generation.getGenerationMillis());
+            round.put("model", generation.getModel());
+            round.put("promptStats", prompt.toStats());
+            recordGeneration(request, generation);
+
+            String newTests = TestCodeExtractor.extractJavaScriptCode(generation.getText());
+            if (newTests.isEmpty()) {
+                reject(round, "noCodeBlock");
+                continue;
+            }
+
+            String candidate = TestFileMerger.merge(describeTitle, List.of(testCode, newTests));
+            Map<String, Object> validation = validationService.validateTestContent("coverage-iteration-" + iteration + ".js", candidate);
+            if (!Boolean.TRUE.equals(validation.get("valid"))) {
+                reject(round, "invalidSyntax");
+                continue;
+            }
+
+            long executionStart = System.currentTimeMillis();
+            TestResult candidateResult = hardhatService.runTestsWithCoverage(request.getSolidityCode(), candidate);
+            long executionMillis = System.currentTimeMillis() - executionStart;
+            round.put("executionMs", executionMillis);
+            describeResult(round, candidateResult);
+            recordExecution(request, candidate, candidateResult, executionMillis);
+
+            List<String> lostTests = lostTests(candidateResult, result);
+            if (candidateResult.getStatus() == TestResult.Status.TIMEOUT) {
+                reject(round, "timeout");
+            } else if (!lostTests.isEmpty() || candidateResult.getFailingTestsCount() > result.getFailingTestsCount()) {
+                // More coverage is worth nothing if the new tests break the ones already kept
+                reject(round, "brokeExistingTests");
+                round.put("lostTests", lostTests);
+            } else if (!improves(candidateResult, result)) {
+                reject(round, "noCoverageGain");
+            } else {
+                round.put("accepted", true);
+                testCode = candidate;
+                result = candidateResult;
+            }
+            System.out.printf("Coverage iteration %d: branches %s%% (%s)%n", iteration,
+                    candidateResult.getCoverageStats().get("branches"), Boolean.TRUE.equals(round.get("accepted")) ? "accepted" : round.get("rejectedBecause"));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("generatedTest", "```javascript\n" + testCode + "\n```");
+        response.put("stopReason", stopReason);
+        response.put("targetBranchCoverage", target);
+        response.put("coverage", result.getCoverageStats());
+        response.put("passingTestsCount", result.getPassingTestsCount());
+        response.put("failingTestsCount", result.getFailingTestsCount());
+        response.put("rounds", rounds);
+        return response;
+    }
+
+    /**
+     * Follow-up instructions listing only what is still missed, with the source of each uncovered line.
+     */
+    private String describeGaps(TestResult result, String[] sourceLines) {
+        CoverageGaps gaps = result.getCoverageGaps();
+        StringBuilder focus = new StringBuilder();
+
+        if (!gaps.getUncoveredLines().isEmpty()) {
+            focus.append("Uncovered Lines (numbers refer to the original contract source):\n");
+            gaps.getUncoveredLines().stream().limit(MAX_LISTED_LINES)
+                    .forEach(line -> focus.append("  line ").append(line).append(": ").append(sourceLine(sourceLines, line)).append("\n"));
+            if (gaps.getUncoveredLines().size() > MAX_LISTED_LINES) {
+                focus.append("  ... and ").append(gaps.getUncoveredLines().size() - MAX_LISTED_LINES).append(" more\n");
+            }
+            focus.append("\n");
+        }
+
+        if (!gaps.getUncoveredBranches().isEmpty()) {
+            focus.append("Branches Never Taken:\n");
+            gaps.getUncoveredBranches().stream().limit(MAX_LISTED_LINES).forEach(branch -> focus
+                    .append("  line ").append(branch.getLine())
+                    .append(" (").append(branch.getType()).append(", ")
+                    .append(branch.getArm() == 0 ? "true/if side" : "false/else side").append("): ")
+                    .append(sourceLine(sourceLines, branch.getLine())).append("\n"));
+            focus.append("\n");
+        }
+
+        if (!gaps.getUncoveredFunctions().isEmpty()) {
+            focus.append("Functions Never Called: ").append(String.join(", ", gaps.getUncoveredFunctions())).append("\n\n");
+        }
+
+        List<String> existing = new ArrayList<>(result.getPassedTests());
+        existing.addAll(result.getFailedTests());
+        if (!existing.isEmpty()) {
+            focus.append("Existing Tests (do not repeat them):\n");
+            existing.forEach(title -> focus.append("  - ").append(title).append("\n"));
+            focus.append("\n");
+        }
+
+        focus.append("Write a complete test file containing only new tests that exercise exactly the uncovered lines ")
+                .append("and branches listed above. Reuse the fixture names of the existing tests where they fit.");
+        return focus.toString();
+    }
+
+    private String sourceLine(String[] sourceLines, int line) {
+        return line >= 1 && line <= sourceLines.length ? sourceLines[line - 1].strip() : "";
+    }
+
+    private boolean improves(TestResult candidate, TestResult current) {
+        double branches = percentage(candidate, "branches");
+        double currentBranches = percentage(current, "branches");
+        return branches > currentBranches
+                || (branches == currentBranches && percentage(candidate, "statements") > percentage(current, "statements"));
+    }
+
+    /**
+     * Titles that passed in the current file but not in the candidate.
+     */
+    private List<String> lostTests(TestResult candidate, TestResult current) {
+        List<String> passedNow = candidate.getPassedTests() == null ? List.of() : candidate.getPassedTests();
+        List<String> lost = new ArrayList<>();
+        if (current.getPassedTests() != null) {
+            for (String title : current.getPassedTests()) {
+                if (!passedNow.contains(title)) lost.add(title);
+            }
+        }
+        return lost;
+    }
+
+    private void reject(Map<String, Object> round, String reason) {
+        round.put("accepted", false);
+        round.put("rejectedBecause", reason);
+    }
+
+    private void describeResult(Map<String, Object> round, TestResult result) {
+        round.put("status", result.getStatus().name());
+        round.put("coverage", result.getCoverageStats());
+        round.put("passingTestsCount", result.getPassingTestsCount());
+        round.put("failingTestsCount", result.getFailingTestsCount());
+        if (result.getCoverageGaps() != null) {
+            round.put("uncoveredLines", result.getCoverageGaps().getUncoveredLines().size());
+            round.put("uncoveredBranches", result.getCoverageGaps().getUncoveredBranches().size());
+        }
+    }
+
+    private double percentage(TestResult result, String metric) {
+        return Double.parseDouble(result.getCoverageStats().getOrDefault(metric, "0.00").replace(',', '.'));
+    }
+
+    private String mainContractName(String solidityCode) {
+        List<SolidityParser.ContractUnit> contracts = SolidityParser.parse(SolidityParser.stripComments(solidityCode))
+                .getContracts().stream()
+                .filter(contract -> contract.getKind().equals("contract"))
+                .collect(Collectors.toList());
+        // By convention the deployable contract comes last, after its dependencies
+        return contracts.isEmpty() ? "Contract" : contracts.get(contracts.size() - 1).getName();
+    }
+
+    private void recordGeneration(TestGenerationRequest request, GenerationResult generation) {
+        RunRecord record = new RunRecord(RunRecord.TYPE_GENERATION);
+        record.setModel(generation.getModel());
+        record.setStatus("success");
+        record.setContext(request.getContext());
+        record.setGeneralInstructions(request.getGeneralInstructions());
+        record.setRequirements(request.getRequirements());
+        record.setSolidityCode(request.getSolidityCode());
+        record.setTestCode(generation.getText());
+        record.addTiming("generation", generation.getGenerationMillis());
+        runHistoryService.record(record);
+    }
+
+    private void recordExecution(TestGenerationRequest request, String testCode, TestResult result, long executionMillis) {
+        RunRecord record = new RunRecord(RunRecord.TYPE_EXECUTION);
+        record.setStatus(result.getStatus() == TestResult.Status.TIMEOUT ? "timeout" : "success");
+        record.setSolidityCode(request.getSolidityCode());
+        record.setTestCode(testCode);
+        record.setPassingTestsCount(result.getPassingTestsCount());
+        record.setFailingTestsCount(result.getFailingTestsCount());
+        record.setCoverage(result.getCoverageStats());
+        record.setRawOutput(result.getFullOutput());
+        record.addTiming("execution", executionMillis);
+        runHistoryService.record(record);
+    }
+}
@@ -0,0 +1,225 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import jakarta.annotation.PreDestroy;
+import net.javaguides.springAi_ollama_app.config.GenerationModelProperties;
+import net.javaguides.springAi_ollama_app.dto.GenerationResult;
+import net.javaguides.springAi_ollama_app.dto.TestGenerationRequest;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Single entry point for every LLM call. Picks a model for the request, from an explicit request field or by
+ * contract size, falls back to the other configured models when a call times out or fails, and keeps latency
+ * statistics per model.
+ */
+@Service
+public class GenerationEngine {
+
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, ModelStats> stats = new ConcurrentHashMap<>();
+    private final ExecutorService callPool = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "generation-call");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GenerationEngine(ChatModel chatModel, GenerationModelProperties properties,
+                            @Value("${spring.ai.ollama.chat.options.model}") String defaultModel) {
+        List<GenerationModelProperties.Model> configured = new ArrayList<>(properties.getModels());
+        if (configured.isEmpty()) {
+            GenerationModelProperties.Model model = new GenerationModelProperties.Model();
+            model.setName(defaultModel);
+            configured.add(model);
+        }
+        for (GenerationModelProperties.Model model : configured) {
+            routes.add(new Route(new OllamaGenerationModel(chatModel, model.getName()),
+                    model.getMaxContractTokens(), model.getTimeout()));
+            stats.put(model.getName(), new ModelStats());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callPool.shutdownNow();
+    }
+
+    public List<String> getModelNames() {
+        return routes.stream().map(route -> route.model.getName()).collect(Collectors.toList());
+    }
+
+    public GenerationResult generate(String prompt, TestGenerationRequest request) {
+        List<Route> candidates = candidatesFor(request);
+        List<Map<String, Object>> attempts = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        RuntimeException lastFailure = null;
+
+        for (Route route : candidates) {
+            String name = route.model.getName();
+            long attemptStart = System.currentTimeMillis();
+            Map<String, Object> attempt = new LinkedHashMap<>();
+            attempt.put("model", name);
+            attempts.add(attempt);
+            try {
+                String answer = call(route, prompt);
+                long elapsed = System.currentTimeMillis() - attemptStart;
+                stats.get(name).success(elapsed);
+                attempt.put("outcome", "success");
+                attempt.put("elapsedMs", elapsed);
+                return new GenerationResult(answer, name, System.currentTimeMillis() - start, attempts);
+            } catch (TimeoutException e) {
+                long elapsed = System.currentTimeMillis() - attemptStart;
+                stats.get(name).timeout();
+                attempt.put("outcome", "timeout");
+                attempt.put("elapsedMs", elapsed);
+                attempt.put("note", "Abandoned, not stopped: Ollama may still be generating this answer");
+                lastFailure = new IllegalStateException("Model " + name + " did not answer within " + route.timeout);
+                System.err.printf("Model %s timed out after %d ms%n", name, elapsed);
+            } catch (RuntimeException e) {
+                long elapsed = System.currentTimeMillis() - attemptStart;
+                stats.get(name).failure();
+                attempt.put("outcome", "error");
+                attempt.put("elapsedMs", elapsed);
+                attempt.put("error", e.getMessage());
+                lastFailure = e;
+                System.err.printf("Model %s failed: %s%n", name, e.getMessage());
+            }
+        }
+        throw lastFailure;
+    }
+
+    /**
+     * The requested model, or the first one whose size limit fits the contract, followed by every other
+     * configured model in configuration order as fallbacks.
+     */
+    private List<Route> candidatesFor(TestGenerationRequest request) {
+        int first;
+        if (request.getModel() != null && !request.getModel().isBlank()) {
+            requireKnownModel(request.getModel());
+            first = indexOf(request.getModel());
+        } else {
+            int contractTokens = PromptAssembler.estimateTokens(request.getSolidityCode() == null ? "" : request.getSolidityCode());
+            first = routes.size() - 1;
+            for (int i = 0; i < routes.size(); i++) {
+                Integer limit = routes.get(i).maxContractTokens;
+                if (limit == null || contractTokens <= limit) {
+                    first = i;
+                    break;
+                }
+            }
+        }
+        List<Route> candidates = new ArrayList<>(routes.size());
+        candidates.add(routes.get(first));
+        for (int i = 0; i < routes.size(); i++) {
+            if (i != first) candidates.add(routes.get(i));
+        }
+        return candidates;
+    }
+
+    /**
+     * Rejects a requested model that is not configured; no model at all means routing by contract size.
+     */
+    public void requireKnownModel(String name) {
+        if (name != null && !name.isBlank() && indexOf(name) < 0) {
+            throw new IllegalArgumentException("Unknown model " + name + ", configured: " + getModelNames());
+        }
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < routes.size(); i++) {
+            if (routes.get(i).model.getName().equals(name)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Cancelling on timeout only interrupts the calling thread; the request may stay open and the Ollama server
+     * may keep generating the abandoned answer, delaying the fallback model's call.
+     */
+    private String call(Route route, String prompt) throws TimeoutException {
+        if (route.timeout == null) {
+            return route.model.generate(prompt);
+        }
+        Future<String> future = callPool.submit(() -> route.model.generate(prompt));
+        try {
+            return future.get(route.timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + route.model.getName(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public List<Map<String, Object>> getModels() {
+        List<Map<String, Object>> models = new ArrayList<>();
+        for (Route route : routes) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("model", route.model.getName());
+            entry.put("maxContractTokens", route.maxContractTokens);
+            entry.put("timeoutSeconds", route.timeout == null ? null : route.timeout.toSeconds());
+            entry.putAll(stats.get(route.model.getName()).snapshot());
+            models.add(entry);
+        }
+        return models;
+    }
+
+    private static class Route {
+        private final GenerationModel model;
+        private final Integer maxContractTokens;
+        private final Duration timeout;
+
+        Route(GenerationModel model, Integer maxContractTokens, Duration timeout) {
+            this.model = model;
+            this.maxContractTokens = maxContractTokens;
+            this.timeout = timeout;
+        }
+    }
+
+    private static class ModelStats {
+        private long successes;
+        private long timeouts;
+        private long failures;
+        private long totalMillis;
+        private long maxMillis;
+        private Long lastMillis;
+
+        synchronized void success(long millis) {
+            successes++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+            lastMillis = millis;
+        }
+
+        synchronized void timeout() {
+            timeouts++;
+        }
+
+        synchronized void failure() {
+            failures++;
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("successes", successes);
+            // A timed-out call is abandoned, not stopped; it may still be running on the Ollama server
+            snapshot.put("timeouts", timeouts);
+            snapshot.put("failures", failures);
+            // Latency covers successful calls only; timeouts are counted separately
+            snapshot.put("averageMs", successes == 0 ? null : totalMillis / successes);
+            snapshot.put("maxMs", successes == 0 ? null : maxMillis);
+            snapshot.put("lastMs", lastMillis);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package net.javaguides.springAi_ollama_app.service;
+
+/**
+ * A model the generation engine can send prompts to.
+ */
+public interface GenerationModel {
+
+    String getName();
+
+    /**
+     * Returns the raw answer for the prompt. Implementations must respond to thread interruption,
+     * which is how the engine abandons a call that ran past its timeout.
+     */
+    String generate(String prompt);
+}
@@ -3,6 +3,7 @@ package net.javaguides.springAi_ollama_app.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.javaguides.springAi_ollama_app.dto.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
@@ -10,10 +11,13 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.file.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class HardhatService {
+    private static final String PROJECT_DIR = "src/main/resources/HardhatProject";
+
     private final Path projectPath;
     private final Path contractsPath;
     private final Path testsPath;
@@ -21,10 +25,20 @@ public class HardhatService {
     private final Path coverageJsonPath;
     private final boolean isWindows;
     private final ObjectMapper objectMapper;
-
-    public HardhatService() {
+    private final long timeoutSeconds;
+    private final long cpuLimitSeconds;
+    private final int maxMemoryMb;
+    // All runs share one Hardhat project directory, so only one may use it at a time
+    private final ReentrantLock projectLock = new ReentrantLock();
+
+    public HardhatService(@Value("${hardhat.run.timeout-seconds:300}") long timeoutSeconds,
+                          @Value("${hardhat.run.cpu-limit-seconds:0}") long cpuLimitSeconds,
+                          @Value("${hardhat.run.max-memory-mb:0}") int maxMemoryMb) {
+        this.timeoutSeconds = timeoutSeconds;
+        this.cpuLimitSeconds = cpuLimitSeconds;
+        this.maxMemoryMb = maxMemoryMb;
         this.isWindows = System.getProperty("os.name").toLowerCase().contains("win");
-        this.projectPath = Paths.get("src/main/resources/HardhatProject").toAbsolutePath();
+        this.projectPath = Paths.get(PROJECT_DIR).toAbsolutePath();
         this.contractsPath = projectPath.resolve("contracts");
         this.testsPath = projectPath.resolve("test");
         this.coveragePath = projectPath.resolve("coverage");
@@ -41,60 +55,90 @@ public class HardhatService {
     }
 
     public TestResult runTestsWithCoverage(String solidityCode, String testCode) throws IOException, InterruptedException {
+        projectLock.lockInterruptibly();
         try {
             setupProjectFiles(solidityCode, testCode);
 
             // Execute coverage command (which includes tests)
-            String combinedOutput = executeHardhatCommand("coverage");
-
-            // Get the test analysis from output
-            List<String> passedTests = new ArrayList<>();
-            List<String> failedTests = new ArrayList<>();
-            int passedTestsCount = 0;
-            int failedTestsCount = 0;
-
-            String[] lines = combinedOutput.split("\n");
-            boolean reachedSummary = false;
-
-            for (String line : lines) {
-                line = line.trim();
-
-                // Stop parsing once we reach the summary line
-                if (line.matches("^\\d+ passing.*") || line.matches("^\\d+ failing.*")) {
-                    reachedSummary = true;
-                    continue;
-                }
-                if (reachedSummary) continue;
-
-                // Passed test
-                if (line.startsWith("√")) {
-                    passedTests.add(line.substring(1).trim());
-                    passedTestsCount++;
-                }
-                // Failed test
-                else if (line.matches("^\\d+\\)\\s+.+")) {
-                    failedTests.add(line.replaceFirst("^\\d+\\)\\s*", "").trim());
-                    failedTestsCount++;
-                }
+            CommandOutput commandOutput = executeHardhatCommand("coverage");
+            TestResult testResult = parseTestOutput(commandOutput);
+            // A killed run never writes its coverage report
+            if (commandOutput.timedOut) {
+                return testResult;
             }
 
             // Get coverage from JSON file
-            Map<String, String> coverageStats = parseCoverageResults();
+            CoverageStats coverageStats = parseCoverageResults();
 
             return new TestResult(
-                    combinedOutput,
-                    coverageStats,  // Use JSON-based coverage stats
-                    passedTestsCount,
-                    failedTestsCount,
-                    passedTests,
-                    failedTests
+                    TestResult.Status.COMPLETED,
+                    testResult.getFullOutput(),
+                    coverageStats.getCoverageResults(),  // Use JSON-based coverage stats
+                    testResult.getPassingTestsCount(),
+                    testResult.getFailingTestsCount(),
+                    testResult.getPassedTests(),
+                    testResult.getFailedTests(),
+                    coverageStats.getCoverageGaps()
             );
         } finally {
-            cleanupProject();
+            try {
+                cleanupProject();
+            } finally {
+                projectLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Counts passing and failing tests from Mocha's spec output. Coverage is left at zero; a timed-out run
+     * gets the TIMEOUT status.
+     */
+    private TestResult parseTestOutput(CommandOutput commandOutput) {
+        String combinedOutput = commandOutput.output;
+
+        // Get the test analysis from output
+        List<String> passedTests = new ArrayList<>();
+        List<String> failedTests = new ArrayList<>();
+        int passedTestsCount = 0;
+        int failedTestsCount = 0;
+
+        String[] lines = combinedOutput.split("\n");
+        boolean reachedSummary = false;
+
+        for (String line : lines) {
+            line = line.trim();
+
+            // Stop parsing once we reach the summary line
+            if (line.matches("^\\d+ passing.*") || line.matches("^\\d+ failing.*")) {
+                reachedSummary = true;
+                continue;
+            }
+            if (reachedSummary) continue;
+
+            // Passed test
+            if (line.startsWith("√")) {
+                passedTests.add(line.substring(1).trim());
+                passedTestsCount++;
+            }
+            // Failed test
+            else if (line.matches("^\\d+\\)\\s+.+")) {
+                failedTests.add(line.replaceFirst("^\\d+\\)\\s*", "").trim());
+                failedTestsCount++;
+            }
         }
+
+        return new TestResult(
+                commandOutput.timedOut ? TestResult.Status.TIMEOUT : TestResult.Status.COMPLETED,
+                combinedOutput,
+                new CoverageStats().getCoverageResults(),
+                passedTestsCount,
+                failedTestsCount,
+                passedTests,
+                failedTests
+        );
     }
 
-    private String executeHardhatCommand(String command) throws IOException, InterruptedException {
+    private CommandOutput executeHardhatCommand(String command) throws IOException, InterruptedException {
         List<String> cmd = buildCommand(command);
         System.out.println("Executing command: " + String.join(" ", cmd));
 
@@ -102,14 +146,84 @@ public class HardhatService {
                 .command(cmd)
                 .directory(projectPath.toFile())
                 .redirectErrorStream(true);
+        if (maxMemoryMb > 0) {
+            // Keep whatever options the server was started with
+            builder.environment().merge("NODE_OPTIONS", "--max-old-space-size=" + maxMemoryMb,
+                    (existing, limit) -> existing.isBlank() ? limit : existing + " " + limit);
+        }
 
         Process process = builder.start();
-        String output = readProcessOutput(process);
 
-        int exitCode = process.waitFor();
-        System.out.println("Process exited with code: " + exitCode);
+        // Drain output on a separate thread so the wall-clock limit applies even while the run is silent
+        OutputReader output = new OutputReader(process);
+        output.start();
+
+        boolean completed;
+        try {
+            completed = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // The caller was cancelled; the tree must be gone before the project files are deleted
+            System.err.println("Hardhat run interrupted, killing process tree");
+            killProcessTree(process);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        if (!completed) {
+            System.err.println("Hardhat run exceeded " + timeoutSeconds + "s, killing process tree");
+            killProcessTree(process);
+        } else {
+            System.out.println("Process exited with code: " + process.exitValue());
+        }
+
+        return new CommandOutput(collectOutput(output), !completed);
+    }
+
+    private void killProcessTree(Process process) throws InterruptedException {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+        process.waitFor(5, TimeUnit.SECONDS);
+    }
+
+    private String collectOutput(OutputReader output) throws IOException, InterruptedException {
+        output.join(5000);
+        if (output.isAlive()) {
+            // An orphaned grandchild still holds the pipe open; keep what was read so far
+            System.err.println("Hardhat output still open after the run, returning partial output");
+            return output.text.toString();
+        }
+        if (output.error != null) {
+            throw output.error;
+        }
+        return output.text.toString();
+    }
+
+    /**
+     * Reads the merged stdout/stderr of a run into a buffer that can be read while the run is still going.
+     * A daemon thread of its own, so a pipe held open by an orphaned process never ties up a shared pool.
+     */
+    private static class OutputReader extends Thread {
+        private final Process process;
+        private final StringBuffer text = new StringBuffer();
+        private volatile IOException error;
+
+        OutputReader(Process process) {
+            super("hardhat-output-" + process.pid());
+            this.process = process;
+            setDaemon(true);
+        }
 
-        return output;
+        @Override
+        public void run() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (text.length() > 0) text.append('\n');
+                    text.append(line);
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+        }
     }
 
     private void setupProjectFiles(String solidityCode, String testCode) throws IOException {
@@ -132,14 +246,21 @@ public class HardhatService {
         if (isWindows) {
             cmd.add("cmd.exe");
             cmd.add("/c");
+        } else if (cpuLimitSeconds > 0) {
+            // Cap CPU time of each process in the tree (ulimit -t applies per process, inherited by children);
+            // exec keeps the PID so the tree kill still reaches it
+            cmd.add("sh");
+            cmd.add("-c");
+            cmd.add("ulimit -t " + cpuLimitSeconds + " && exec npx hardhat " + command);
+            return cmd;
         }
         cmd.add("npx");
         cmd.add("hardhat");
-        cmd.add(command);
+        cmd.addAll(Arrays.asList(command.split(" ")));
         return cmd;
     }
 
-    private Map<String, String> parseCoverageResults() throws IOException {
+    private CoverageStats parseCoverageResults() throws IOException {
         if (!Files.exists(coverageJsonPath)) {
             throw new IOException("Coverage report not found at: " + coverageJsonPath);
         }
@@ -149,20 +270,13 @@ public class HardhatService {
 
         rootNode.fields().forEachRemaining(entry -> {
             JsonNode contractNode = entry.getValue();
-            stats.processStatements(contractNode.path("s"));
-            stats.processBranches(contractNode.path("b"));
-            stats.processFunctions(contractNode.path("f"));
+            stats.processStatements(contractNode.path("s"), contractNode.path("statementMap"));
+            stats.processBranches(contractNode.path("b"), contractNode.path("branchMap"));
+            stats.processFunctions(contractNode.path("f"), contractNode.path("fnMap"));
             stats.processLines(contractNode.path("l"));
         });
 
-        return stats.getCoverageResults();
-    }
-
-    private String readProcessOutput(Process process) throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream()))) {
-            return reader.lines().collect(Collectors.joining("\n"));
-        }
+        return stats;
     }
 
     private void cleanupProject() throws IOException {
@@ -199,6 +313,16 @@ public class HardhatService {
         }
     }
 
+    private static class CommandOutput {
+        private final String output;
+        private final boolean timedOut;
+
+        CommandOutput(String output, boolean timedOut) {
+            this.output = output;
+            this.timedOut = timedOut;
+        }
+    }
+
     private static class CoverageStats {
         private int totalStatements = 0;
         private int coveredStatements = 0;
@@ -208,25 +332,37 @@ public class HardhatService {
         private int coveredFunctions = 0;
         private int totalLines = 0;
         private int coveredLines = 0;
+        private final SortedSet<Integer> uncoveredLines = new TreeSet<>();
+        private final List<CoverageGaps.UncoveredBranch> uncoveredBranches = new ArrayList<>();
+        private final List<String> uncoveredFunctions = new ArrayList<>();
 
-        void processStatements(JsonNode statements) {
-            statements.forEach(count -> {
+        void processStatements(JsonNode statements, JsonNode statementMap) {
+            statements.fields().forEachRemaining(entry -> {
                 totalStatements++;
-                if (count.asInt() > 0) coveredStatements++;
+                if (entry.getValue().asInt() > 0) coveredStatements++;
+                else uncoveredLines.add(statementMap.path(entry.getKey()).path("start").path("line").asInt());
             });
         }
 
-        void processBranches(JsonNode branches) {
-            branches.forEach(branch -> branch.forEach(count -> {
-                totalBranches++;
-                if (count.asInt() > 0) coveredBranches++;
-            }));
+        void processBranches(JsonNode branches, JsonNode branchMap) {
+            branches.fields().forEachRemaining(entry -> {
+                JsonNode branch = branchMap.path(entry.getKey());
+                int arm = 0;
+                for (JsonNode count : entry.getValue()) {
+                    totalBranches++;
+                    if (count.asInt() > 0) coveredBranches++;
+                    else uncoveredBranches.add(new CoverageGaps.UncoveredBranch(
+                            branch.path("line").asInt(), branch.path("type").asText(), arm));
+                    arm++;
+                }
+            });
         }
 
-        void processFunctions(JsonNode functions) {
-            functions.forEach(count -> {
+        void processFunctions(JsonNode functions, JsonNode fnMap) {
+            functions.fields().forEachRemaining(entry -> {
                 totalFunctions++;
-                if (count.asInt() > 0) coveredFunctions++;
+                if (entry.getValue().asInt() > 0) coveredFunctions++;
+                else uncoveredFunctions.add(fnMap.path(entry.getKey()).path("name").asText());
             });
         }
 
@@ -246,6 +382,10 @@ public class HardhatService {
             return results;
         }
 
+        CoverageGaps getCoverageGaps() {
+            return new CoverageGaps(new ArrayList<>(uncoveredLines), uncoveredBranches, uncoveredFunctions);
+        }
+
         private String calculatePercentage(int covered, int total) {
             return total == 0 ? "0.00" : String.format("%.2f", (100.0 * covered) / total);
         }
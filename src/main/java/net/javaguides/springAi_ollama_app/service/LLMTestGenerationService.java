@@ -1,7 +1,9 @@
 package net.javaguides.springAi_ollama_app.service;
 
+import net.javaguides.springAi_ollama_app.dto.AssembledPrompt;
+import net.javaguides.springAi_ollama_app.dto.GenerationResult;
+import net.javaguides.springAi_ollama_app.dto.RunRecord;
 import net.javaguides.springAi_ollama_app.dto.TestGenerationRequest;
-import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -10,31 +12,58 @@ import java.util.Map;
 @Service
 public class LLMTestGenerationService {
 
-    private final ChatModel chatModel;
+    private final GenerationEngine generationEngine;
+    private final RunHistoryService runHistoryService;
+    private final PromptAssembler promptAssembler;
+    private final PerFunctionGenerationService perFunctionGenerationService;
 
-    public LLMTestGenerationService(ChatModel chatModel) {
-        this.chatModel = chatModel;
+    public LLMTestGenerationService(GenerationEngine generationEngine, RunHistoryService runHistoryService, PromptAssembler promptAssembler,
+                                    PerFunctionGenerationService perFunctionGenerationService) {
+        this.generationEngine = generationEngine;
+        this.runHistoryService = runHistoryService;
+        this.promptAssembler = promptAssembler;
+        this.perFunctionGenerationService = perFunctionGenerationService;
     }
 
     public Map<String, Object> generateTestFromPrompt(TestGenerationRequest requestData) {
-        StringBuilder promptBuilder = new StringBuilder();
-        promptBuilder.append(requestData.getContext()).append("\n\n");
-        promptBuilder.append("Solidity Code:\n").append(requestData.getSolidityCode()).append("\n\n");
-        promptBuilder.append("Instructions:\n").append(requestData.getGeneralInstructions()).append("\n\n");
-        promptBuilder.append("Requirements:\n").append(requestData.getRequirements()).append("\n\n");
-
-        if (requestData.getExampleTest() != null && !requestData.getExampleTest().isEmpty()) {
-            promptBuilder.append("Example Test:\n").append(requestData.getExampleTest()).append("\n\n");
+        if (requestData.getSolidityCode() == null || requestData.getSolidityCode().isBlank()) {
+            throw new IllegalArgumentException("solidityCode is required");
+        }
+        // Before fanning out, so per-function mode reports it once instead of failing every group
+        generationEngine.requireKnownModel(requestData.getModel());
+        if (PerFunctionGenerationService.MODE.equals(requestData.getMode())) {
+            Map<String, Object> response = perFunctionGenerationService.generate(requestData);
+            if (response != null) return response;
+            System.out.println("No public or external functions found, falling back to a single prompt");
         }
 
-        String finalPrompt = promptBuilder.toString();
+        AssembledPrompt assembled = promptAssembler.assemble(requestData);
+        String finalPrompt = assembled.getPrompt();
         System.out.println("Generated Prompt : " + finalPrompt);
+        System.out.println("Prompt size : " + assembled.toStats());
+
+        GenerationResult generation = generationEngine.generate(finalPrompt, requestData);
+        String result = generation.getText();
+        System.out.println("Generated Test Code (" + generation.getModel() + ") : " + result);
 
-        String result = chatModel.call(finalPrompt);
-        System.out.println("Generated Test Code : " + result);
+        RunRecord record = new RunRecord(RunRecord.TYPE_GENERATION);
+        record.setModel(generation.getModel());
+        record.setStatus("success");
+        record.setContext(requestData.getContext());
+        record.setGeneralInstructions(requestData.getGeneralInstructions());
+        record.setRequirements(requestData.getRequirements());
+        record.setExampleTest(requestData.getExampleTest());
+        record.setSolidityCode(requestData.getSolidityCode());
+        record.setTestCode(result);
+        record.addTiming("generation", generation.getGenerationMillis());
+        String runId = runHistoryService.record(record);
 
         Map<String, Object> response = new HashMap<>();
         response.put("generatedTest", result);
+        if (runId != null) response.put("runId", runId);
+        response.put("model", generation.getModel());
+        response.put("attempts", generation.getAttempts());
+        response.put("promptStats", assembled.toStats());
 
         return response;
     }
@@ -0,0 +1,31 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.api.OllamaOptions;
+
+/**
+ * Sends prompts through the shared Ollama chat model, overriding only the model name per call.
+ */
+public class OllamaGenerationModel implements GenerationModel {
+
+    private final ChatModel chatModel;
+    private final String name;
+
+    public OllamaGenerationModel(ChatModel chatModel, String name) {
+        this.chatModel = chatModel;
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String generate(String prompt) {
+        // Runtime options are merged over the configured defaults, so keep-alive and the rest still apply
+        OllamaOptions options = OllamaOptions.builder().model(name).build();
+        return chatModel.call(new Prompt(prompt, options)).getResult().getOutput().getText();
+    }
+}
@@ -0,0 +1,151 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PreDestroy;
+import net.javaguides.springAi_ollama_app.config.OllamaWarmupProperties;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the configured Ollama models into memory at startup and keeps them resident,
+ * so no user request pays the model load time.
+ */
+@Service
+public class OllamaWarmupService {
+    private final OllamaApi ollamaApi;
+    private final OllamaWarmupProperties properties;
+    private final RestClient restClient;
+    private final List<OllamaWarmupProperties.Model> models;
+    private final Map<String, WarmupState> states = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ollama-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OllamaWarmupService(OllamaApi ollamaApi,
+                               OllamaWarmupProperties properties,
+                               GenerationEngine generationEngine,
+                               @Value("${spring.ai.ollama.base-url:http://localhost:11434}") String baseUrl) {
+        this.ollamaApi = ollamaApi;
+        this.properties = properties;
+        this.restClient = RestClient.create(baseUrl);
+
+        List<OllamaWarmupProperties.Model> configured = new ArrayList<>(properties.getModels());
+        if (configured.isEmpty()) {
+            // Every generation model, in routing order so the fast draft model is ready first
+            List<String> names = generationEngine.getModelNames();
+            for (int i = 0; i < names.size(); i++) {
+                OllamaWarmupProperties.Model model = new OllamaWarmupProperties.Model();
+                model.setName(names.get(i));
+                model.setPriority(i);
+                configured.add(model);
+            }
+        }
+        configured.sort(Comparator.comparingInt(OllamaWarmupProperties.Model::getPriority));
+        this.models = configured;
+        this.models.forEach(model -> states.put(model.getName(), new WarmupState()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            System.out.println("Ollama warm-up disabled");
+            return;
+        }
+        // Runs off the startup thread; models load one after another in priority order
+        scheduler.scheduleWithFixedDelay(this::warmUpAll, 0,
+                properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void warmUpAll() {
+        for (OllamaWarmupProperties.Model model : models) {
+            warmUp(model.getName());
+        }
+    }
+
+    private void warmUp(String model) {
+        WarmupState state = states.get(model);
+        long start = System.currentTimeMillis();
+        try {
+            // A chat request without messages makes Ollama load the model and apply keep_alive without generating
+            ollamaApi.chat(OllamaApi.ChatRequest.builder(model)
+                    .messages(List.of())
+                    .stream(false)
+                    .keepAlive(properties.getKeepAlive())
+                    .build());
+            state.lastWarmupAt = System.currentTimeMillis();
+            state.lastWarmupMillis = state.lastWarmupAt - start;
+            state.lastError = null;
+            System.out.printf("Ollama model %s warmed up in %d ms%n", model, state.lastWarmupMillis);
+        } catch (Exception e) {
+            state.lastError = e.getMessage();
+            System.err.printf("Ollama warm-up failed for %s: %s%n", model, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getHealth() {
+        Set<String> loaded = fetchLoadedModels();
+
+        List<Map<String, Object>> modelStates = new ArrayList<>();
+        for (OllamaWarmupProperties.Model model : models) {
+            WarmupState state = states.get(model.getName());
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("model", model.getName());
+            entry.put("priority", model.getPriority());
+            entry.put("loaded", loaded != null && loaded.contains(withDefaultTag(model.getName())));
+            entry.put("lastWarmupAt", state.lastWarmupAt);
+            entry.put("lastWarmupMillis", state.lastWarmupMillis);
+            if (state.lastError != null) entry.put("lastError", state.lastError);
+            modelStates.add(entry);
+        }
+
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("status", loaded == null ? "unreachable"
+                : modelStates.stream().allMatch(m -> Boolean.TRUE.equals(m.get("loaded"))) ? "ready" : "loading");
+        health.put("warmupEnabled", properties.isEnabled());
+        health.put("keepAlive", properties.getKeepAlive());
+        health.put("models", modelStates);
+        return health;
+    }
+
+    private Set<String> fetchLoadedModels() {
+        try {
+            // /api/ps lists the models currently resident in Ollama's memory
+            JsonNode response = restClient.get().uri("/api/ps").retrieve().body(JsonNode.class);
+            Set<String> names = new HashSet<>();
+            if (response != null) {
+                response.path("models").forEach(model -> names.add(withDefaultTag(model.path("name").asText())));
+            }
+            return names;
+        } catch (Exception e) {
+            System.err.println("Failed to query loaded Ollama models: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String withDefaultTag(String model) {
+        return model.contains(":") ? model : model + ":latest";
+    }
+
+    private static class WarmupState {
+        private volatile Long lastWarmupAt;
+        private volatile Long lastWarmupMillis;
+        private volatile String lastError;
+    }
+}
@@ -0,0 +1,173 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import jakarta.annotation.PreDestroy;
+import net.javaguides.springAi_ollama_app.dto.AssembledPrompt;
+import net.javaguides.springAi_ollama_app.dto.GenerationResult;
+import net.javaguides.springAi_ollama_app.dto.RunRecord;
+import net.javaguides.springAi_ollama_app.dto.TestGenerationRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Generates tests one public/external function (or small group) at a time, with the prompts sent to the
+ * model concurrently, and merges the answers into a single test file.
+ */
+@Service
+public class PerFunctionGenerationService {
+
+    public static final String MODE = "per-function";
+
+    private final GenerationEngine generationEngine;
+    private final PromptAssembler promptAssembler;
+    private final RunHistoryService runHistoryService;
+    private final ExecutorService pool;
+
+    public PerFunctionGenerationService(GenerationEngine generationEngine, PromptAssembler promptAssembler, RunHistoryService runHistoryService,
+                                       @Value("${generation.per-function.parallelism:4}") int parallelism) {
+        this.generationEngine = generationEngine;
+        this.promptAssembler = promptAssembler;
+        this.runHistoryService = runHistoryService;
+        this.pool = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Returns the generation response, or null when the contract has no public/external functions to split on.
+     * Throws IllegalStateException with every group's error when no group produced a test.
+     */
+    public Map<String, Object> generate(TestGenerationRequest requestData) {
+        List<FunctionGroup> groups = planGroups(requestData);
+        if (groups.isEmpty()) return null;
+
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Void>> futures = groups.stream()
+                .map(group -> CompletableFuture.runAsync(() -> generateGroup(requestData, group), pool))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        long generationMillis = System.currentTimeMillis() - start;
+
+        Map<String, List<String>> filesByContract = new LinkedHashMap<>();
+        List<Map<String, Object>> promptStats = new ArrayList<>();
+        List<String> failedFunctions = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (FunctionGroup group : groups) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("functions", group.qualifiedNames());
+            stats.put("generationMs", group.generationMillis);
+            if (group.model != null) stats.put("model", group.model);
+            if (group.prompt != null) stats.putAll(group.prompt.toStats());
+            promptStats.add(stats);
+
+            if (group.testCode == null || group.testCode.isEmpty()) {
+                failedFunctions.addAll(group.qualifiedNames());
+                String error = group.error != null ? group.error : "No JavaScript code block in LLM output";
+                stats.put("error", error);
+                errors.add(String.join(", ", group.qualifiedNames()) + ": " + error);
+                continue;
+            }
+            filesByContract.computeIfAbsent(group.contract.getName(), k -> new ArrayList<>()).add(group.testCode);
+        }
+
+        if (filesByContract.isEmpty()) {
+            throw new IllegalStateException("All " + groups.size() + " prompts failed: " + String.join("; ", errors));
+        }
+        String merged = TestFileMerger.merge(filesByContract);
+        // Same shape as a single-shot answer so clients can keep extracting the fenced block
+        String result = "```javascript\n" + merged + "```";
+        System.out.printf("Per-function generation: %d prompts in %d ms, %d functions failed%n",
+                groups.size(), generationMillis, failedFunctions.size());
+        System.out.println("Generated Test Code : " + result);
+
+        // Groups can land on different models when one of them falls back
+        String models = groups.stream().map(group -> group.model).filter(Objects::nonNull).distinct()
+                .collect(Collectors.joining(","));
+
+        RunRecord record = new RunRecord(RunRecord.TYPE_GENERATION);
+        record.setModel(models);
+        record.setStatus(failedFunctions.isEmpty() ? "success" : "partial");
+        record.setContext(requestData.getContext());
+        record.setGeneralInstructions(requestData.getGeneralInstructions());
+        record.setRequirements(requestData.getRequirements());
+        record.setExampleTest(requestData.getExampleTest());
+        record.setSolidityCode(requestData.getSolidityCode());
+        record.setTestCode(result);
+        record.addTiming("generation", generationMillis);
+        String runId = runHistoryService.record(record);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("generatedTest", result);
+        if (runId != null) response.put("runId", runId);
+        response.put("mode", MODE);
+        response.put("model", models);
+        response.put("functions", groups.stream().flatMap(g -> g.qualifiedNames().stream()).collect(Collectors.toList()));
+        response.put("failedFunctions", failedFunctions);
+        response.put("promptStats", promptStats);
+        return response;
+    }
+
+    private List<FunctionGroup> planGroups(TestGenerationRequest requestData) {
+        int groupSize = requestData.getFunctionsPerPrompt() == null ? 1 : Math.max(1, requestData.getFunctionsPerPrompt());
+        SolidityParser.ParsedSource parsed = SolidityParser.parse(SolidityParser.stripComments(requestData.getSolidityCode()));
+
+        List<FunctionGroup> groups = new ArrayList<>();
+        for (SolidityParser.ContractUnit contract : parsed.getContracts()) {
+            // Interfaces have nothing to execute and libraries are exercised through their callers
+            if (!contract.getKind().equals("contract")) continue;
+
+            List<SolidityParser.Member> functions = contract.getMembers().stream()
+                    .filter(member -> member.getKind().equals("function") && member.hasBody())
+                    .filter(member -> member.getVisibility().equals("public") || member.getVisibility().equals("external"))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < functions.size(); i += groupSize) {
+                groups.add(new FunctionGroup(contract, functions.subList(i, Math.min(i + groupSize, functions.size()))));
+            }
+        }
+        return groups;
+    }
+
+    private void generateGroup(TestGenerationRequest requestData, FunctionGroup group) {
+        long start = System.currentTimeMillis();
+        try {
+            group.prompt = promptAssembler.assembleForFunctions(requestData, group.contract, group.functions);
+            GenerationResult generation = generationEngine.generate(group.prompt.getPrompt(), requestData);
+            group.model = generation.getModel();
+            group.testCode = TestCodeExtractor.extractJavaScriptCode(generation.getText());
+        } catch (Exception e) {
+            group.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            System.err.println("Generation failed for " + group.qualifiedNames() + ": " + e.getMessage());
+        } finally {
+            group.generationMillis = System.currentTimeMillis() - start;
+        }
+    }
+
+    private static class FunctionGroup {
+        private final SolidityParser.ContractUnit contract;
+        private final List<SolidityParser.Member> functions;
+        private volatile AssembledPrompt prompt;
+        private volatile String testCode;
+        private volatile String model;
+        private volatile String error;
+        private volatile long generationMillis;
+
+        FunctionGroup(SolidityParser.ContractUnit contract, List<SolidityParser.Member> functions) {
+            this.contract = contract;
+            this.functions = functions;
+        }
+
+        List<String> qualifiedNames() {
+            return functions.stream()
+                    .map(function -> contract.getName() + "." + function.getName())
+                    .collect(Collectors.toList());
+        }
+    }
+}
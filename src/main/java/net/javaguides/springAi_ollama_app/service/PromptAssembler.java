@@ -0,0 +1,217 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import net.javaguides.springAi_ollama_app.dto.AssembledPrompt;
+import net.javaguides.springAi_ollama_app.dto.TestGenerationRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the test-generation prompt within a token budget. The prompt is left untouched when it fits;
+ * otherwise the Solidity source is shrunk step by step: comments stripped, example test dropped,
+ * function bodies elided, and finally each contract trimmed to its share of the remaining budget.
+ */
+@Service
+public class PromptAssembler {
+
+    private static final Pattern TOKEN = Pattern.compile("\\w+|[^\\s\\w]");
+
+    private final int tokenBudget;
+
+    public PromptAssembler(@Value("${prompt.token-budget:6000}") int tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    public AssembledPrompt assemble(TestGenerationRequest request) {
+        return assemble(request.getContext(), request.getGeneralInstructions(), request.getRequirements(),
+                request.getExampleTest(), request.getSolidityCode());
+    }
+
+    public AssembledPrompt assemble(String context, String generalInstructions, String requirements,
+                                    String exampleTest, String solidityCode) {
+        return assemble(context, generalInstructions, requirements, exampleTest, solidityCode, null);
+    }
+
+    /**
+     * Prompt for a subset of a contract's functions: the whole source stays as context (reduced if needed)
+     * while the target functions are repeated in full and the model is told to test only those.
+     */
+    public AssembledPrompt assembleForFunctions(TestGenerationRequest request, SolidityParser.ContractUnit contract,
+                                                List<SolidityParser.Member> targets) {
+        StringBuilder focus = new StringBuilder("Target Functions (contract ").append(contract.getName()).append("):\n");
+        for (SolidityParser.Member target : targets) {
+            focus.append(target.getText().strip()).append("\n\n");
+        }
+        focus.append("Write tests only for the target functions above, inside describe(\"")
+                .append(contract.getName())
+                .append("\") with one nested describe block per function named after the function.");
+
+        return assembleWithFocus(request, focus.toString());
+    }
+
+    /**
+     * Prompt with an extra section after the Solidity code that is never reduced, e.g. the code a follow-up should target.
+     */
+    public AssembledPrompt assembleWithFocus(TestGenerationRequest request, String focus) {
+        return assemble(request.getContext(), request.getGeneralInstructions(), request.getRequirements(),
+                request.getExampleTest(), request.getSolidityCode(), focus);
+    }
+
+    private AssembledPrompt assemble(String context, String generalInstructions, String requirements,
+                                     String exampleTest, String solidityCode, String focus) {
+        List<String> reductions = new ArrayList<>();
+        String code = solidityCode == null ? "" : solidityCode;
+        String example = exampleTest;
+
+        String prompt = render(context, generalInstructions, requirements, example, code, focus);
+        if (fits(prompt)) return result(prompt, reductions);
+
+        code = SolidityParser.stripComments(code);
+        reductions.add("strippedComments");
+        prompt = render(context, generalInstructions, requirements, example, code, focus);
+        if (fits(prompt)) return result(prompt, reductions);
+
+        if (example != null && !example.isEmpty()) {
+            example = null;
+            reductions.add("droppedExampleTest");
+            prompt = render(context, generalInstructions, requirements, example, code, focus);
+            if (fits(prompt)) return result(prompt, reductions);
+        }
+
+        SolidityParser.ParsedSource parsed = SolidityParser.parse(code);
+        code = summarize(parsed, Integer.MAX_VALUE);
+        reductions.add("summarizedContracts");
+        prompt = render(context, generalInstructions, requirements, example, code, focus);
+        if (fits(prompt)) return result(prompt, reductions);
+
+        int fixedTokens = estimateTokens(render(context, generalInstructions, requirements, example, "", focus));
+        code = summarize(parsed, Math.max(0, tokenBudget - fixedTokens));
+        reductions.add("truncatedContracts");
+        prompt = render(context, generalInstructions, requirements, example, code, focus);
+        return result(prompt, reductions);
+    }
+
+    /**
+     * Rough BPE-style estimate: punctuation counts as one token, words as one token per four characters.
+     */
+    public static int estimateTokens(String text) {
+        int tokens = 0;
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            tokens += (matcher.group().length() + 3) / 4;
+        }
+        return tokens;
+    }
+
+    private String render(String context, String generalInstructions, String requirements, String exampleTest,
+                          String solidityCode, String focus) {
+        StringBuilder promptBuilder = new StringBuilder();
+        promptBuilder.append(context).append("\n\n");
+        promptBuilder.append("Solidity Code:\n").append(solidityCode).append("\n\n");
+        if (focus != null) {
+            promptBuilder.append(focus).append("\n\n");
+        }
+        promptBuilder.append("Instructions:\n").append(generalInstructions).append("\n\n");
+        promptBuilder.append("Requirements:\n").append(requirements).append("\n\n");
+
+        if (exampleTest != null && !exampleTest.isEmpty()) {
+            promptBuilder.append("Example Test:\n").append(exampleTest).append("\n\n");
+        }
+        return promptBuilder.toString();
+    }
+
+    /**
+     * Renders contracts as signatures only. With a finite budget the contracts share it, smallest first so that
+     * whatever a small contract leaves unused goes to the larger ones; each contract keeps types and events first,
+     * then public/external functions, then the rest, in source order.
+     */
+    private String summarize(SolidityParser.ParsedSource parsed, int codeBudget) {
+        StringBuilder out = new StringBuilder();
+        for (String statement : parsed.getPreamble()) {
+            out.append(statement).append("\n");
+        }
+        if (!parsed.getPreamble().isEmpty()) out.append("\n");
+
+        List<SolidityParser.ContractUnit> contracts = parsed.getContracts();
+        String[] chunks = new String[contracts.size()];
+        if (codeBudget == Integer.MAX_VALUE) {
+            for (int i = 0; i < contracts.size(); i++) {
+                chunks[i] = summarizeContract(contracts.get(i), Integer.MAX_VALUE);
+            }
+        } else {
+            List<Integer> bySize = new ArrayList<>();
+            for (int i = 0; i < contracts.size(); i++) bySize.add(i);
+            bySize.sort(Comparator.comparingInt(i -> estimateTokens(summarizeContract(contracts.get(i), Integer.MAX_VALUE))));
+
+            int remaining = codeBudget - estimateTokens(out.toString());
+            for (int n = 0; n < bySize.size(); n++) {
+                int index = bySize.get(n);
+                chunks[index] = summarizeContract(contracts.get(index), remaining / (bySize.size() - n));
+                remaining -= estimateTokens(chunks[index]);
+            }
+        }
+
+        for (String chunk : chunks) {
+            out.append(chunk).append("\n\n");
+        }
+        return out.toString().strip();
+    }
+
+    private String summarizeContract(SolidityParser.ContractUnit contract, int budget) {
+        List<SolidityParser.Member> members = contract.getMembers();
+        List<String> lines = new ArrayList<>();
+        for (SolidityParser.Member member : members) {
+            lines.add(member.summarize());
+        }
+
+        Set<Integer> included = new HashSet<>();
+        // Reserve room for the braces and the "members omitted" marker
+        int used = estimateTokens(contract.getHeader() + " { } // ... 00 members omitted");
+        for (int priority = 0; priority < 3; priority++) {
+            for (int i = 0; i < members.size(); i++) {
+                if (priorityOf(members.get(i)) != priority) continue;
+                int cost = estimateTokens(lines.get(i));
+                if (budget == Integer.MAX_VALUE || used + cost <= budget) {
+                    included.add(i);
+                    used += cost;
+                }
+            }
+        }
+
+        StringBuilder out = new StringBuilder(contract.getHeader()).append(" {\n");
+        for (int i = 0; i < members.size(); i++) {
+            if (included.contains(i)) {
+                out.append("    ").append(lines.get(i).replace("\n", "\n    ")).append("\n");
+            }
+        }
+        int omitted = members.size() - included.size();
+        if (omitted > 0) {
+            out.append("    // ... ").append(omitted).append(" members omitted\n");
+        }
+        return out.append("}").toString();
+    }
+
+    private int priorityOf(SolidityParser.Member member) {
+        return switch (member.getKind()) {
+            case "function" -> {
+                String visibility = member.getVisibility();
+                yield visibility.equals("public") || visibility.equals("external") ? 1 : 2;
+            }
+            case "constructor", "fallback", "receive" -> 1;
+            case "variable", "modifier", "using" -> 2;
+            // Events, errors, structs and enums are what tests assert against
+            default -> 0;
+        };
+    }
+
+    private boolean fits(String prompt) {
+        return estimateTokens(prompt) <= tokenBudget;
+    }
+
+    private AssembledPrompt result(String prompt, List<String> reductions) {
+        return new AssembledPrompt(prompt, estimateTokens(prompt), tokenBudget, reductions);
+    }
+}
@@ -0,0 +1,207 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springAi_ollama_app.dto.RunRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Append-only JSONL store of generation, validation and execution runs.
+ * Full records stay on disk; only a small per-run index entry (with its byte offset) is kept in memory.
+ */
+@Service
+public class RunHistoryService {
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final Path storePath;
+
+    private final Map<String, IndexEntry> byId = new HashMap<>();
+    private final List<IndexEntry> entries = new ArrayList<>();
+    private final Map<String, List<IndexEntry>> byType = new HashMap<>();
+    private final Map<String, List<IndexEntry>> byModel = new HashMap<>();
+
+    public RunHistoryService(@Value("${history.store.path:run-history/runs.jsonl}") String storePath) throws IOException {
+        this.storePath = Paths.get(storePath).toAbsolutePath();
+        loadIndex();
+    }
+
+    /**
+     * Appends the record and returns its id, or null when it could not be persisted, so callers never hand out
+     * an id that /api/history cannot resolve.
+     */
+    public synchronized String record(RunRecord record) {
+        record.setId(UUID.randomUUID().toString());
+        record.setCreatedAt(System.currentTimeMillis());
+
+        try {
+            byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            long offset = Files.size(storePath);
+            Files.write(storePath, line, StandardOpenOption.APPEND);
+            addToIndex(new IndexEntry(record, offset, line.length - 1));
+        } catch (IOException e) {
+            // History must never break the request being recorded
+            System.err.println("Failed to record run history: " + e.getMessage());
+            return null;
+        }
+        return record.getId();
+    }
+
+    public Optional<RunRecord> findById(String id) throws IOException {
+        IndexEntry entry;
+        synchronized (this) {
+            entry = byId.get(id);
+        }
+        if (entry == null) return Optional.empty();
+
+        // Indexed bytes are never rewritten, so the read needs no lock and doesn't hold up record() or query()
+        byte[] line = new byte[entry.length];
+        try (RandomAccessFile file = new RandomAccessFile(storePath.toFile(), "r")) {
+            file.seek(entry.offset);
+            file.readFully(line);
+        }
+        return Optional.of(objectMapper.readValue(line, RunRecord.class));
+    }
+
+    /**
+     * Returns one page of run summaries, newest first, optionally filtered by type and model.
+     */
+    public synchronized Map<String, Object> query(String type, String model, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page must be >= 0 and size >= 1");
+        }
+        List<IndexEntry> candidates = entries;
+        if (type != null) candidates = byType.getOrDefault(type, List.of());
+        if (model != null) {
+            List<IndexEntry> modelEntries = byModel.getOrDefault(model, List.of());
+            if (modelEntries.size() < candidates.size()) candidates = modelEntries;
+        }
+
+        List<Map<String, Object>> matches = new ArrayList<>();
+        // A long, so a huge page number cannot overflow into a negative offset
+        long skip = (long) page * size;
+        int total = 0;
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            IndexEntry entry = candidates.get(i);
+            if (type != null && !type.equals(entry.type)) continue;
+            if (model != null && !model.equals(entry.model)) continue;
+
+            if (total >= skip && matches.size() < size) {
+                matches.add(entry.toSummary());
+            }
+            total++;
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("page", page);
+        result.put("size", size);
+        result.put("totalElements", total);
+        result.put("totalPages", total / size + (total % size == 0 ? 0 : 1));
+        result.put("content", matches);
+        return result;
+    }
+
+    private void loadIndex() throws IOException {
+        Files.createDirectories(storePath.getParent());
+        if (!Files.exists(storePath)) {
+            Files.createFile(storePath);
+            return;
+        }
+
+        try (InputStream in = Files.newInputStream(storePath)) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long offset = 0;
+            long lineStart = 0;
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    offset++;
+                    if (b == '\n') {
+                        indexLine(line.toByteArray(), lineStart);
+                        line.reset();
+                        lineStart = offset;
+                    } else {
+                        line.write(b);
+                    }
+                }
+            }
+            if (line.size() > 0) {
+                // Partial write from a crash; the next append starts on a fresh line
+                System.err.println("Ignoring truncated run history entry at offset " + lineStart);
+                Files.write(storePath, new byte[]{'\n'}, StandardOpenOption.APPEND);
+            }
+        }
+        System.out.println("Loaded " + entries.size() + " runs from history at " + storePath);
+    }
+
+    private void indexLine(byte[] line, long offset) {
+        if (line.length == 0) return;
+        try {
+            RunRecord record = objectMapper.readValue(line, RunRecord.class);
+            addToIndex(new IndexEntry(record, offset, line.length));
+        } catch (IOException e) {
+            System.err.println("Skipping unreadable run history entry at offset " + offset + ": " + e.getMessage());
+        }
+    }
+
+    private void addToIndex(IndexEntry entry) {
+        entries.add(entry);
+        byId.put(entry.id, entry);
+        byType.computeIfAbsent(entry.type, k -> new ArrayList<>()).add(entry);
+        if (entry.model != null) {
+            byModel.computeIfAbsent(entry.model, k -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    private static class IndexEntry {
+        private final String id;
+        private final String type;
+        private final String model;
+        private final String status;
+        private final long createdAt;
+        private final Boolean valid;
+        private final Integer passingTestsCount;
+        private final Integer failingTestsCount;
+        private final Map<String, String> coverage;
+        private final long offset;
+        private final int length;
+
+        IndexEntry(RunRecord record, long offset, int length) {
+            this.id = record.getId();
+            this.type = record.getType();
+            this.model = record.getModel();
+            this.status = record.getStatus();
+            this.createdAt = record.getCreatedAt();
+            this.valid = record.getValid();
+            this.passingTestsCount = record.getPassingTestsCount();
+            this.failingTestsCount = record.getFailingTestsCount();
+            this.coverage = record.getCoverage();
+            this.offset = offset;
+            this.length = length;
+        }
+
+        Map<String, Object> toSummary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("id", id);
+            summary.put("type", type);
+            summary.put("model", model);
+            summary.put("status", status);
+            summary.put("createdAt", createdAt);
+            if (valid != null) summary.put("valid", valid);
+            if (passingTestsCount != null) summary.put("passingTestsCount", passingTestsCount);
+            if (failingTestsCount != null) summary.put("failingTestsCount", failingTestsCount);
+            if (coverage != null) summary.put("coverage", coverage);
+            return summary;
+        }
+    }
+}
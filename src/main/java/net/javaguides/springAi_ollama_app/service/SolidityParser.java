@@ -0,0 +1,291 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lightweight structural reader for Solidity sources. It only tracks braces, parentheses, strings and comments,
+ * which is enough to split a file into contracts and their members without a full grammar.
+ */
+public final class SolidityParser {
+
+    private static final Pattern CONTRACT_HEADER = Pattern.compile("\\b(contract|library|interface)\\s+(\\w+)");
+    private static final Pattern VISIBILITY = Pattern.compile("\\b(external|public|internal|private)\\b");
+    private static final Pattern MUTABILITY = Pattern.compile("\\b(view|pure|payable)\\b");
+    private static final Set<String> BODY_KINDS = Set.of("function", "constructor", "modifier", "fallback", "receive");
+
+    private SolidityParser() {
+    }
+
+    public static class ContractUnit {
+        private final String kind;
+        private final String name;
+        private final String header;
+        private final List<Member> members;
+
+        ContractUnit(String kind, String name, String header, List<Member> members) {
+            this.kind = kind;
+            this.name = name;
+            this.header = header;
+            this.members = members;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public List<Member> getMembers() {
+            return members;
+        }
+    }
+
+    public static class Member {
+        private final String kind;
+        private final String name;
+        private final String header;
+        private final String text;
+        private final boolean hasBody;
+
+        Member(String kind, String name, String header, String text, boolean hasBody) {
+            this.kind = kind;
+            this.name = name;
+            this.header = header;
+            this.text = text;
+            this.hasBody = hasBody;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** Declaration up to, but excluding, the body, with whitespace collapsed. */
+        public String getHeader() {
+            return header;
+        }
+
+        /** Full original source of the member. */
+        public String getText() {
+            return text;
+        }
+
+        public boolean hasBody() {
+            return hasBody;
+        }
+
+        public String getVisibility() {
+            Matcher matcher = VISIBILITY.matcher(header);
+            return matcher.find() ? matcher.group(1) : "public";
+        }
+
+        public String getMutability() {
+            Matcher matcher = MUTABILITY.matcher(header);
+            return matcher.find() ? matcher.group(1) : "nonpayable";
+        }
+
+        /** Signature only for executable members, full text for everything else (events, structs, state, ...). */
+        public String summarize() {
+            if (hasBody && BODY_KINDS.contains(kind)) {
+                return header + " { ... }";
+            }
+            return text.strip();
+        }
+    }
+
+    public static class ParsedSource {
+        private final List<String> preamble;
+        private final List<ContractUnit> contracts;
+
+        ParsedSource(List<String> preamble, List<ContractUnit> contracts) {
+            this.preamble = preamble;
+            this.contracts = contracts;
+        }
+
+        /** Pragmas, imports and file-level declarations outside any contract. */
+        public List<String> getPreamble() {
+            return preamble;
+        }
+
+        public List<ContractUnit> getContracts() {
+            return contracts;
+        }
+    }
+
+    public static String stripComments(String source) {
+        StringBuilder out = new StringBuilder(source.length());
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '"' || c == '\'') {
+                int end = skipString(source, i);
+                out.append(source, i, end);
+                i = end;
+            } else if (source.startsWith("//", i)) {
+                while (i < source.length() && source.charAt(i) != '\n') i++;
+            } else if (source.startsWith("/*", i)) {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? source.length() : end + 2;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        // Drop trailing spaces left behind by comments and collapse runs of blank lines
+        return out.toString()
+                .replaceAll("[ \\t]+\\n", "\n")
+                .replaceAll("\\n{3,}", "\n\n")
+                .strip();
+    }
+
+    /**
+     * Splits comment-free source into file-level statements and contracts.
+     */
+    public static ParsedSource parse(String source) {
+        List<String> preamble = new ArrayList<>();
+        List<ContractUnit> contracts = new ArrayList<>();
+
+        for (Segment segment : split(source)) {
+            Matcher matcher = CONTRACT_HEADER.matcher(segment.header);
+            if (segment.body != null && matcher.find()) {
+                List<Member> members = new ArrayList<>();
+                for (Segment member : split(segment.body)) {
+                    members.add(toMember(member));
+                }
+                contracts.add(new ContractUnit(matcher.group(1), matcher.group(2), collapse(segment.header), members));
+            } else {
+                preamble.add(segment.text.strip());
+            }
+        }
+        return new ParsedSource(preamble, contracts);
+    }
+
+    private static Member toMember(Segment segment) {
+        String header = collapse(segment.header);
+        String[] words = header.split("[\\s(]+", 3);
+        String first = words.length > 0 ? words[0] : "";
+
+        String kind;
+        String name;
+        switch (first) {
+            case "function", "modifier", "event", "error", "struct", "enum" -> {
+                kind = first;
+                name = words.length > 1 ? words[1] : "";
+            }
+            case "constructor", "fallback", "receive" -> {
+                kind = first;
+                name = first;
+            }
+            case "using" -> {
+                kind = "using";
+                name = "";
+            }
+            default -> {
+                kind = "variable";
+                String declaration = header.split("=(?!>)", 2)[0].trim();
+                name = declaration.substring(declaration.lastIndexOf(' ') + 1);
+            }
+        }
+        return new Member(kind, name, header, segment.text, segment.body != null);
+    }
+
+    private static class Segment {
+        private final String header;
+        private final String body;
+        private final String text;
+
+        Segment(String header, String body, String text) {
+            this.header = header;
+            this.body = body;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Cuts a block into top-level statements: either "header;" or "header { body }".
+     */
+    private static List<Segment> split(String source) {
+        List<Segment> segments = new ArrayList<>();
+        int start = 0;
+        int parens = 0;
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipString(source, i);
+                continue;
+            }
+            if (c == '(') parens++;
+            else if (c == ')') parens--;
+            else if (c == ';' && parens == 0) {
+                String text = source.substring(start, i + 1);
+                if (!text.isBlank()) {
+                    segments.add(new Segment(text.substring(0, text.length() - 1).strip(), null, text));
+                }
+                start = i + 1;
+            } else if (c == '{' && parens == 0) {
+                int close = matchingBrace(source, i);
+                String text = source.substring(start, Math.min(close + 1, source.length()));
+                segments.add(new Segment(source.substring(start, i).strip(),
+                        source.substring(i + 1, Math.min(close, source.length())), text));
+                i = close + 1;
+                start = i;
+                continue;
+            }
+            i++;
+        }
+        if (!source.substring(start).isBlank()) {
+            String rest = source.substring(start);
+            segments.add(new Segment(rest.strip(), null, rest));
+        }
+        return segments;
+    }
+
+    private static int matchingBrace(String source, int open) {
+        int depth = 0;
+        int i = open;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipString(source, i);
+                continue;
+            }
+            if (c == '{') depth++;
+            else if (c == '}' && --depth == 0) return i;
+            i++;
+        }
+        return source.length();
+    }
+
+    private static int skipString(String source, int open) {
+        char quote = source.charAt(open);
+        int i = open + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote || c == '\n') return i + 1;
+            i++;
+        }
+        return source.length();
+    }
+
+    private static String collapse(String text) {
+        return text.replaceAll("\\s+", " ").trim();
+    }
+}
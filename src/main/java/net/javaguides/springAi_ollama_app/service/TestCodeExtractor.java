@@ -0,0 +1,30 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Server-side counterpart of the frontend's extractJavaScriptCode: pulls the test file out of a raw LLM answer.
+ */
+public final class TestCodeExtractor {
+
+    private static final Pattern CODE_BLOCK = Pattern.compile("```(?:javascript|js)\\s*([\\s\\S]*?)\\s*```");
+
+    private TestCodeExtractor() {
+    }
+
+    public static String extractJavaScriptCode(String llmOutput) {
+        if (llmOutput == null) return "";
+
+        String sanitized = llmOutput
+                .replace("<<<<<<< SEARCH", "")
+                .replace("=======", "")
+                .replace(">>>>>>> REPLACE", "")
+                .replace("<think>", "")
+                .replace("</think>", "")
+                .trim();
+
+        Matcher matcher = CODE_BLOCK.matcher(sanitized);
+        return matcher.find() ? matcher.group(1).trim() : "";
+    }
+}
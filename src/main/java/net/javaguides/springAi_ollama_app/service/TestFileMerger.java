@@ -0,0 +1,609 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Merges several generated Mocha test files into one. Requires are deduplicated by the names they bind, every
+ * top-level describe is folded into a single describe for the contract, and inside each describe scope shared
+ * declarations, fixture functions and hooks are emitted once before the tests. Describes with the same title are
+ * merged recursively and tests with the same title are kept only once.
+ *
+ * Files are independent answers, so two of them may bind the same name to different values: the later file's
+ * binding is renamed throughout that file. When the files merged into one scope bring different hooks, each
+ * file's tests keep their own hooks in a nested describe instead of running every file's setup.
+ */
+public final class TestFileMerger {
+
+    private static final Pattern IMPORT = Pattern.compile("^(?:(?:const|let|var)\\s[^=]*=\\s*require\\s*\\(|import\\s)");
+    private static final Pattern DESCRIBE = Pattern.compile("^describe(?:\\.only|\\.skip)?\\s*\\(");
+    private static final Pattern TEST = Pattern.compile("^it(?:\\.only|\\.skip)?\\s*\\(");
+    private static final Pattern HOOK = Pattern.compile("^(?:before|beforeEach|after|afterEach)\\s*\\(");
+    private static final Pattern FUNCTION = Pattern.compile("^(?:async\\s+)?function\\s*\\*?\\s*(\\w+)");
+    private static final Pattern DECLARATION = Pattern.compile("^(let|var)\\s+([\\w$]+(?:\\s*,\\s*[\\w$]+)*)\\s*;?$");
+    private static final Pattern VALUE_DECLARATION = Pattern.compile("^(?:const|let|var)\\s+([\\w$]+)\\s*=(?![=>])");
+    private static final Pattern DESTRUCTURING = Pattern.compile("^(?:const|let|var)\\s*([{\\[])");
+    private static final Pattern DESTRUCTURED_REQUIRE = Pattern.compile(
+            "^(?:const|let|var)\\s*\\{([^}]*)\\}\\s*=\\s*require\\s*\\(\\s*(['\"`])([^'\"`]+)\\2\\s*\\)\\s*;?$");
+    private static final Pattern DEFAULT_REQUIRE = Pattern.compile(
+            "^(?:const|let|var)\\s+([\\w$]+)\\s*=\\s*require\\s*\\(\\s*(['\"`])([^'\"`]+)\\2\\s*\\)\\s*;?$");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][\\w$]*");
+    private static final Pattern TITLE = Pattern.compile("\\(\\s*(['\"`])((?:\\\\.|(?!\\1).)*)\\1");
+    private static final String INDENT = "  ";
+
+    private TestFileMerger() {
+    }
+
+    public static String merge(String describeTitle, List<String> files) {
+        Map<String, List<String>> filesByDescribe = new LinkedHashMap<>();
+        filesByDescribe.put(describeTitle, files);
+        return merge(filesByDescribe);
+    }
+
+    /**
+     * Merges each group of files into one describe block named by its key, sharing a single set of requires.
+     */
+    public static String merge(Map<String, List<String>> filesByDescribe) {
+        Imports imports = new Imports();
+        List<List<String>> topLevel = new ArrayList<>();
+        Map<String, List<List<String>>> describeBodies = new LinkedHashMap<>();
+        // Every value binding seen so far, across scopes: name -> normalized declaration
+        Map<String, String> bindings = new HashMap<>();
+        int fileNumber = 0;
+
+        for (Map.Entry<String, List<String>> group : filesByDescribe.entrySet()) {
+            List<List<String>> describeScopes = describeBodies.computeIfAbsent(group.getKey(), k -> new ArrayList<>());
+            for (String original : group.getValue()) {
+                String file = renameConflicts(original, bindings, ++fileNumber);
+                List<String> fileTopLevel = new ArrayList<>();
+                List<String> fileDescribe = new ArrayList<>();
+                for (String statement : splitStatements(file)) {
+                    String code = withoutLeadingComments(statement);
+                    if (IMPORT.matcher(code).find()) {
+                        imports.add(code);
+                    } else if (DESCRIBE.matcher(code).find()) {
+                        fileDescribe.addAll(splitStatements(callbackBody(statement)));
+                    } else {
+                        fileTopLevel.add(statement);
+                    }
+                }
+                topLevel.add(fileTopLevel);
+                describeScopes.add(fileDescribe);
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        imports.render().forEach(statement -> out.append(statement).append("\n"));
+        out.append("\n");
+        List<String> shared = mergeScopes(topLevel);
+        appendScope(out, shared, "");
+        if (!shared.isEmpty()) out.append("\n");
+        for (Map.Entry<String, List<List<String>>> describe : describeBodies.entrySet()) {
+            out.append("describe(").append(quote(describe.getKey())).append(", function () {\n");
+            appendScope(out, mergeScopes(describe.getValue()), INDENT);
+            out.append("});\n\n");
+        }
+        return out.toString().strip() + "\n";
+    }
+
+    /**
+     * Merges the statements of several describe bodies that share a title, one list per source file.
+     */
+    private static List<String> mergeScopes(List<List<String>> scopes) {
+        if (hooksDiffer(scopes)) {
+            return mergeScopes(List.of(isolateHooks(scopes)));
+        }
+
+        Set<String> declared = new LinkedHashSet<>();
+        Map<String, String> functions = new LinkedHashMap<>();
+        Map<String, String> hooks = new LinkedHashMap<>();
+        Map<String, String> others = new LinkedHashMap<>();
+        Set<String> valueNames = new HashSet<>();
+        Set<String> testTitles = new HashSet<>();
+        // Tests and describes keep their first-appearance order; describes are merged by title
+        LinkedHashMap<String, List<List<String>>> children = new LinkedHashMap<>();
+
+        for (List<String> scope : scopes) {
+            for (String statement : scope) {
+                String code = withoutLeadingComments(statement);
+                Matcher declaration = DECLARATION.matcher(code);
+                Matcher function = FUNCTION.matcher(code);
+                if (declaration.find()) {
+                    for (String name : declaration.group(2).split(",")) declared.add(name.trim());
+                } else if (function.find()) {
+                    if (functions.containsKey(function.group(1)) && !normalize(functions.get(function.group(1))).equals(normalize(statement))) {
+                        System.out.println("Merging tests: keeping first definition of " + function.group(1));
+                    }
+                    functions.putIfAbsent(function.group(1), statement);
+                } else if (HOOK.matcher(code).find()) {
+                    hooks.putIfAbsent(normalize(statement), statement);
+                } else if (DESCRIBE.matcher(code).find()) {
+                    children.computeIfAbsent("describe:" + title(statement), k -> new ArrayList<>())
+                            .add(splitStatements(callbackBody(statement)));
+                } else if (TEST.matcher(code).find()) {
+                    if (testTitles.add(title(statement))) {
+                        children.put("it:" + title(statement), List.of(List.of(statement)));
+                    }
+                } else {
+                    // Conflicting values were renamed up front, so one binding per name is enough
+                    List<String> names = boundNames(code);
+                    valueNames.addAll(names);
+                    others.putIfAbsent(names.isEmpty() ? normalize(statement) : "binding:" + names, statement);
+                }
+            }
+        }
+        // "let token;" next to "let token = null;" would declare the name twice
+        declared.removeAll(valueNames);
+
+        List<String> merged = new ArrayList<>();
+        if (!declared.isEmpty()) merged.add("let " + String.join(", ", declared) + ";");
+        merged.addAll(functions.values());
+        merged.addAll(others.values());
+        merged.addAll(hooks.values());
+        for (Map.Entry<String, List<List<String>>> child : children.entrySet()) {
+            if (child.getKey().startsWith("it:")) {
+                merged.add(child.getValue().get(0).get(0));
+            } else {
+                merged.add(describe(child.getKey().substring("describe:".length()), mergeScopes(child.getValue())));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * True when the files merged into one scope bring different sets of hooks; files without hooks don't count.
+     */
+    private static boolean hooksDiffer(List<List<String>> scopes) {
+        Set<Set<String>> hookSets = new HashSet<>();
+        for (List<String> scope : scopes) {
+            Set<String> hooks = new TreeSet<>();
+            for (String statement : scope) {
+                if (HOOK.matcher(withoutLeadingComments(statement)).find()) hooks.add(normalize(statement));
+            }
+            if (!hooks.isEmpty()) hookSets.add(hooks);
+        }
+        return hookSets.size() > 1;
+    }
+
+    /**
+     * Flattens the scopes into one, moving each file's hooks into a describe around that file's own tests.
+     * Declarations and fixtures stay shared. A file whose tests are a single describe gets its hooks pushed
+     * into that describe rather than a new wrapper.
+     */
+    private static List<String> isolateHooks(List<List<String>> scopes) {
+        List<String> combined = new ArrayList<>();
+        int group = 0;
+        for (List<String> scope : scopes) {
+            List<String> hooks = new ArrayList<>();
+            List<String> cases = new ArrayList<>();
+            for (String statement : scope) {
+                String code = withoutLeadingComments(statement);
+                if (HOOK.matcher(code).find()) hooks.add(statement);
+                else if (DESCRIBE.matcher(code).find() || TEST.matcher(code).find()) cases.add(statement);
+                else combined.add(statement);
+            }
+            if (hooks.isEmpty() || cases.isEmpty()) {
+                combined.addAll(cases);
+                continue;
+            }
+            group++;
+            List<String> body = new ArrayList<>(hooks);
+            String only = cases.size() == 1 ? cases.get(0) : null;
+            if (only != null && DESCRIBE.matcher(withoutLeadingComments(only)).find()) {
+                body.addAll(splitStatements(callbackBody(only)));
+                combined.add(describe(title(only), body));
+            } else {
+                body.addAll(cases);
+                combined.add(describe("group " + group, body));
+            }
+        }
+        return combined;
+    }
+
+    private static String describe(String title, List<String> statements) {
+        StringBuilder describe = new StringBuilder("describe(").append(quote(title)).append(", function () {\n");
+        appendScope(describe, statements, INDENT);
+        return describe.append("});").toString();
+    }
+
+    /**
+     * Renames the file's value bindings (const/let/var with an initializer, function declarations) that an earlier
+     * file already bound to something else, then records the file's bindings.
+     */
+    private static String renameConflicts(String file, Map<String, String> bindings, int fileNumber) {
+        Map<String, String> renames = new LinkedHashMap<>();
+        for (Map.Entry<String, String> binding : declarationsOf(file).entrySet()) {
+            String existing = bindings.get(binding.getKey());
+            if (existing != null && !existing.equals(binding.getValue())) {
+                String renamed = binding.getKey() + "_" + fileNumber;
+                while (bindings.containsKey(renamed) || Pattern.compile("\\b" + Pattern.quote(renamed) + "\\b").matcher(file).find()) {
+                    renamed += "_";
+                }
+                renames.put(binding.getKey(), renamed);
+            }
+        }
+        String result = file;
+        if (!renames.isEmpty()) {
+            System.out.println("Merging tests: renamed " + renames + " to avoid clashing declarations");
+            result = renameIdentifiers(file, renames);
+        }
+        declarationsOf(result).forEach(bindings::putIfAbsent);
+        return result;
+    }
+
+    /**
+     * Value bindings at every describe level of a file, by name, with their normalized declaration.
+     */
+    private static Map<String, String> declarationsOf(String source) {
+        Map<String, String> declarations = new LinkedHashMap<>();
+        for (String statement : splitStatements(source)) {
+            String code = withoutLeadingComments(statement);
+            if (IMPORT.matcher(code).find()) continue;
+            if (DESCRIBE.matcher(code).find()) {
+                declarationsOf(callbackBody(statement)).forEach(declarations::putIfAbsent);
+                continue;
+            }
+            Matcher function = FUNCTION.matcher(code);
+            List<String> names = function.find() ? List.of(function.group(1)) : boundNames(code);
+            for (String name : names) declarations.putIfAbsent(name, normalize(code));
+        }
+        return declarations;
+    }
+
+    /**
+     * Names bound by a declaration with an initializer, including destructuring; empty for anything else.
+     */
+    private static List<String> boundNames(String code) {
+        Matcher single = VALUE_DECLARATION.matcher(code);
+        if (single.find()) return List.of(single.group(1));
+
+        Matcher destructuring = DESTRUCTURING.matcher(code);
+        if (!destructuring.find()) return List.of();
+        int open = destructuring.start(1);
+        int close = matchingBracket(code, open);
+        if (close >= code.length() || !code.substring(close + 1).strip().startsWith("=")) return List.of();
+
+        List<String> names = new ArrayList<>();
+        for (String element : code.substring(open + 1, close).split(",")) {
+            String name = bindingName(element);
+            if (name != null) names.add(name);
+        }
+        return names;
+    }
+
+    /**
+     * The local name of one destructuring element: "a", "a: b", "a = 1" or "...rest".
+     */
+    private static String bindingName(String element) {
+        String name = element.split("=", 2)[0];
+        if (name.contains(":")) name = name.substring(name.indexOf(':') + 1);
+        name = name.strip().replaceFirst("^\\.\\.\\.", "");
+        return IDENTIFIER.matcher(name).matches() ? name : null;
+    }
+
+    /**
+     * Replaces whole identifiers outside strings and comments, leaving property accesses such as "x.name" alone.
+     */
+    private static String renameIdentifiers(String source, Map<String, String> renames) {
+        StringBuilder out = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '`') {
+                i = renameInTemplate(source, i, renames, out);
+            } else if (isQuote(c)) {
+                int end = skipString(source, i);
+                out.append(source, i, end);
+                i = end;
+            } else if (source.startsWith("//", i) || source.startsWith("/*", i)) {
+                int end = source.startsWith("//", i) ? source.indexOf('\n', i) : source.indexOf("*/", i + 2) + 2;
+                if (end < i) end = source.length();
+                out.append(source, i, end);
+                i = end;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int end = i;
+                while (end < source.length() && Character.isJavaIdentifierPart(source.charAt(end))) end++;
+                String word = source.substring(i, end);
+                int previous = out.length() - 1;
+                while (previous >= 0 && Character.isWhitespace(out.charAt(previous))) previous--;
+                boolean member = previous >= 0 && out.charAt(previous) == '.'
+                        && !(previous >= 2 && out.charAt(previous - 1) == '.' && out.charAt(previous - 2) == '.');
+                out.append(!member && renames.containsKey(word) ? renames.get(word) : word);
+                i = end;
+            } else {
+                out.append(c);
+                // Keeps "1e5" or "0x1f" from being read as an identifier after the digit
+                if (Character.isDigit(c)) {
+                    int end = i + 1;
+                    while (end < source.length() && Character.isJavaIdentifierPart(source.charAt(end))) end++;
+                    out.append(source, i + 1, end);
+                    i = end;
+                } else {
+                    i++;
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Copies a template literal, renaming inside its ${...} expressions; returns the index after the closing backtick.
+     */
+    private static int renameInTemplate(String source, int open, Map<String, String> renames, StringBuilder out) {
+        out.append('`');
+        int i = open + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                out.append(source, i, Math.min(i + 2, source.length()));
+                i += 2;
+            } else if (c == '`') {
+                out.append(c);
+                return i + 1;
+            } else if (source.startsWith("${", i)) {
+                int close = matchingBrace(source, i + 1);
+                out.append("${").append(renameIdentifiers(source.substring(i + 2, Math.min(close, source.length())), renames));
+                if (close < source.length()) out.append('}');
+                i = close + 1;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return source.length();
+    }
+
+    private static void appendScope(StringBuilder out, List<String> statements, String indent) {
+        for (String statement : statements) {
+            out.append(indent).append(reindent(statement, indent)).append("\n\n");
+        }
+        // One blank line between statements, none before the closing brace
+        if (!statements.isEmpty()) out.setLength(out.length() - 1);
+    }
+
+    /**
+     * Shifts a statement so its first line is at column zero, then indents every line by the given prefix.
+     */
+    private static String reindent(String statement, String indent) {
+        String[] lines = statement.split("\n", -1);
+        // The closing line of a block sits at the statement's own depth
+        int shift = lines.length > 1 ? leadingOf(lines[lines.length - 1]) : 0;
+
+        StringBuilder out = new StringBuilder(lines[0].strip());
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i];
+            int leading = leadingOf(line);
+            out.append("\n");
+            if (!line.isBlank()) out.append(indent).append(line.substring(Math.min(shift, leading)));
+        }
+        return out.toString();
+    }
+
+    private static int leadingOf(String line) {
+        return line.length() - line.stripLeading().length();
+    }
+
+    private static String withoutLeadingComments(String statement) {
+        return statement.replaceFirst("^(?:\\s*(?://[^\\n]*|/\\*[\\s\\S]*?\\*/))*\\s*", "");
+    }
+
+    private static String title(String statement) {
+        Matcher matcher = TITLE.matcher(withoutLeadingComments(statement));
+        return matcher.find() ? matcher.group(2) : normalize(statement);
+    }
+
+    private static String quote(String title) {
+        return "\"" + title.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Comparison key for statements: whitespace, quote style and a trailing semicolon don't matter.
+     */
+    private static String normalize(String statement) {
+        return statement.replaceAll("\\s+", "").replaceFirst(";$", "").replace('\'', '"').replace('`', '"');
+    }
+
+    /**
+     * Returns the body of the callback passed to describe(...): the first brace block inside its parentheses.
+     */
+    private static String callbackBody(String statement) {
+        int open = -1;
+        int parens = 0;
+        for (int i = 0; i < statement.length(); i++) {
+            char c = statement.charAt(i);
+            if (isQuote(c)) {
+                i = skipString(statement, i) - 1;
+            } else if (c == '(') {
+                parens++;
+            } else if (c == ')') {
+                parens--;
+            } else if (c == '{' && parens >= 1) {
+                open = i;
+                break;
+            }
+        }
+        if (open < 0) return "";
+        int close = matchingBrace(statement, open);
+        return statement.substring(open + 1, Math.min(close, statement.length()));
+    }
+
+    /**
+     * Splits a JavaScript block into top-level statements, keeping leading comments with the statement they precede.
+     * A statement ends at a semicolon, or at a line break when every bracket is closed and the line looks complete.
+     */
+    static List<String> splitStatements(String source) {
+        List<String> statements = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (isQuote(c)) {
+                i = skipString(source, i);
+                continue;
+            }
+            if (source.startsWith("//", i)) {
+                while (i < source.length() && source.charAt(i) != '\n') i++;
+                continue;
+            }
+            if (source.startsWith("/*", i)) {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? source.length() : end + 2;
+                continue;
+            }
+
+            if (c == '(' || c == '{' || c == '[') depth++;
+            else if (c == ')' || c == '}' || c == ']') depth--;
+            else if (depth == 0 && c == ';') {
+                addStatement(statements, source.substring(start, i + 1));
+                start = i + 1;
+            } else if (depth == 0 && c == '\n' && endsStatement(source, start, i)) {
+                addStatement(statements, source.substring(start, i));
+                start = i + 1;
+            }
+            i++;
+        }
+        addStatement(statements, source.substring(Math.min(start, source.length())));
+        return statements;
+    }
+
+    private static boolean endsStatement(String source, int start, int newline) {
+        String current = stripComments(source.substring(start, newline)).strip();
+        if (current.isEmpty()) return false;
+        char last = current.charAt(current.length() - 1);
+        if (!(Character.isJavaIdentifierPart(last) || ")]}'\"`".indexOf(last) >= 0)) return false;
+
+        int next = newline + 1;
+        while (next < source.length() && Character.isWhitespace(source.charAt(next))) next++;
+        if (next >= source.length()) return true;
+        // A line starting with an operator or member access continues the previous one
+        return ".?:+-*/%&|^=,)]}".indexOf(source.charAt(next)) < 0;
+    }
+
+    private static void addStatement(List<String> statements, String text) {
+        String statement = text.strip();
+        if (stripComments(statement).isBlank()) return;
+        statements.add(statement);
+    }
+
+    private static String stripComments(String text) {
+        return text.replaceAll("(?m)(^|\\s)//.*$", "").replaceAll("(?s)/\\*.*?\\*/", "");
+    }
+
+    private static int matchingBracket(String source, int open) {
+        char opening = source.charAt(open);
+        char closing = opening == '[' ? ']' : '}';
+        int depth = 0;
+        int i = open;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (isQuote(c)) {
+                i = skipString(source, i);
+                continue;
+            }
+            if (c == opening) depth++;
+            else if (c == closing && --depth == 0) return i;
+            i++;
+        }
+        return source.length();
+    }
+
+    private static int matchingBrace(String source, int open) {
+        int depth = 0;
+        int i = open;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (isQuote(c)) {
+                i = skipString(source, i);
+                continue;
+            }
+            if (source.startsWith("//", i)) {
+                while (i < source.length() && source.charAt(i) != '\n') i++;
+                continue;
+            }
+            if (c == '{') depth++;
+            else if (c == '}' && --depth == 0) return i;
+            i++;
+        }
+        return source.length();
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'' || c == '`';
+    }
+
+    private static int skipString(String source, int open) {
+        char quote = source.charAt(open);
+        int i = open + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) return i + 1;
+            if (c == '\n' && quote != '`') return i + 1;
+            i++;
+        }
+        return source.length();
+    }
+
+    /**
+     * Requires merged by the names they bind. Destructured requires of one module are combined, whatever their
+     * quote style, and a name already bound by an earlier require is not imported again.
+     */
+    private static final class Imports {
+        private final Map<String, Set<String>> destructured = new LinkedHashMap<>();
+        private final Map<String, String> defaults = new LinkedHashMap<>();
+        private final Map<String, String> raw = new LinkedHashMap<>();
+        private final Map<String, String> boundTo = new HashMap<>();
+        private final List<String> order = new ArrayList<>();
+
+        void add(String code) {
+            Matcher destructuring = DESTRUCTURED_REQUIRE.matcher(code);
+            Matcher single = DEFAULT_REQUIRE.matcher(code);
+            if (destructuring.matches()) {
+                String module = destructuring.group(3);
+                for (String element : destructuring.group(1).split(",")) {
+                    String name = bindingName(element);
+                    if (name == null || !bind(name, module)) continue;
+                    destructured.computeIfAbsent(module, m -> {
+                        order.add("{" + m);
+                        return new LinkedHashSet<>();
+                    }).add(element.strip().replaceAll("\\s+", " "));
+                }
+            } else if (single.matches()) {
+                String name = single.group(1);
+                if (bind(name, single.group(3))) {
+                    defaults.put(name, single.group(3));
+                    order.add("=" + name);
+                }
+            } else {
+                String key = normalize(code);
+                if (raw.putIfAbsent(key, code.endsWith(";") ? code : code + ";") == null) order.add("#" + key);
+            }
+        }
+
+        private boolean bind(String name, String module) {
+            String existing = boundTo.putIfAbsent(name, module);
+            if (existing != null && !existing.equals(module)) {
+                System.out.println("Merging tests: " + name + " is already required from " + existing + ", dropping the require from " + module);
+            }
+            return existing == null;
+        }
+
+        List<String> render() {
+            List<String> statements = new ArrayList<>();
+            for (String key : order) {
+                String id = key.substring(1);
+                switch (key.charAt(0)) {
+                    case '{' -> statements.add("const { " + String.join(", ", destructured.get(id)) + " } = require(" + quote(id) + ");");
+                    case '=' -> statements.add("const " + id + " = require(" + quote(defaults.get(id)) + ");");
+                    default -> statements.add(raw.get(id));
+                }
+            }
+            return statements;
+        }
+    }
+}
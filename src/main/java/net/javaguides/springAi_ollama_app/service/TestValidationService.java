@@ -6,6 +6,8 @@ import org.springframework.stereotype.Service;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -44,13 +46,19 @@ public class TestValidationService {
         return cmd;
     }
 
+    /**
+     * Returns {valid:false} for any failure of the check itself, but rethrows an interruption so callers
+     * (batch jobs being shut down, superseded live validations) don't take it for a verdict on the test.
+     */
     public Map<String, Object> validateTestContent(String testFileName, String content) throws IOException, InterruptedException {
+        Path tempFile = null;
+        Process process = null;
         try {
             // Create temp file to pass to check.js
-            Path tempFile = Files.createTempFile("test-", ".js");
+            tempFile = Files.createTempFile("test-", ".js");
             Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
 
-            Process process = new ProcessBuilder()
+            process = new ProcessBuilder()
                     .command(buildCommand(tempFile.toString()))
                     .redirectErrorStream(true)
                     .start();
@@ -74,6 +82,11 @@ public class TestValidationService {
             Files.deleteIfExists(tempFile);
 
             return parseResults(output.toString(), testFileName);
+        } catch (InterruptedException | InterruptedIOException | ClosedByInterruptException e) {
+            if (process != null) process.destroyForcibly();
+            if (tempFile != null) Files.deleteIfExists(tempFile);
+            Thread.currentThread().interrupt();
+            throw e instanceof InterruptedException interrupted ? interrupted : new InterruptedException("Validation interrupted");
         } catch (Exception e) {
             System.err.println("Validation error: " + e.getMessage());
             return Map.of(
@@ -0,0 +1,279 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Server side of live editor validation. Each session keeps the current test file, applies the client's
+ * incremental edits to it, re-validates once the edits pause for the debounce delay, and publishes only
+ * the diagnostics that appeared or disappeared since the last publication.
+ *
+ * Messages from the client:
+ *   {"type":"open", "fileName":"MyTest.js", "text":"..."}                      starts over at version 0
+ *   {"type":"edit", "version":N, "changes":[{"offset":o, "deleteCount":d, "text":"..."}]}
+ * where version is the document version after the edit (current + 1) and changes apply in order.
+ * Messages to the client: "diagnostics", "resync" (the client must send "open" again) and "error".
+ */
+@Service
+public class ValidationSessionService {
+
+    private final TestValidationService validationService;
+    private final long debounceMillis;
+    private final int maxDocumentChars;
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService debouncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "validation-debounce");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService validationPool;
+
+    public ValidationSessionService(TestValidationService validationService,
+                                    @Value("${validation.session.debounce-ms:400}") long debounceMillis,
+                                    @Value("${validation.session.max-document-chars:500000}") int maxDocumentChars,
+                                    @Value("${validation.session.parallelism:2}") int parallelism) {
+        this.validationService = validationService;
+        this.debounceMillis = debounceMillis;
+        this.maxDocumentChars = maxDocumentChars;
+        this.validationPool = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        debouncer.shutdownNow();
+        validationPool.shutdownNow();
+    }
+
+    public int getMaxDocumentChars() {
+        return maxDocumentChars;
+    }
+
+    public void register(String sessionId, Consumer<Map<String, Object>> publisher) {
+        documents.put(sessionId, new Document(publisher));
+    }
+
+    public void unregister(String sessionId) {
+        Document document = documents.remove(sessionId);
+        if (document != null) {
+            synchronized (document) {
+                if (document.pending != null) document.pending.cancel(false);
+            }
+        }
+    }
+
+    public void handle(String sessionId, JsonNode message) {
+        Document document = documents.get(sessionId);
+        if (document == null) return;
+
+        String type = message.path("type").asText();
+        synchronized (document) {
+            switch (type) {
+                case "open" -> {
+                    String text = message.path("text").asText("");
+                    if (text.length() > maxDocumentChars) {
+                        document.publisher.accept(error("Document exceeds " + maxDocumentChars + " characters"));
+                        return;
+                    }
+                    reset(document);
+                    document.fileName = message.path("fileName").asText("editor.js");
+                    document.text = new StringBuilder(text);
+                    document.version = 0;
+                    document.opened = true;
+                }
+                case "edit" -> {
+                    if (!document.opened) {
+                        document.publisher.accept(resync(document, "Send an open message first"));
+                        return;
+                    }
+                    int version = message.path("version").asInt(-1);
+                    if (version != document.version + 1) {
+                        document.publisher.accept(resync(document, "Expected version " + (document.version + 1) + " but got " + version));
+                        return;
+                    }
+                    String problem = applyChanges(document, message.path("changes"));
+                    if (problem != null) {
+                        document.publisher.accept(resync(document, problem));
+                        return;
+                    }
+                    document.version = version;
+                }
+                default -> {
+                    document.publisher.accept(error("Unknown message type: " + type));
+                    return;
+                }
+            }
+
+            // Every new edit pushes the validation back, so a burst of keystrokes costs one run
+            if (document.pending != null) document.pending.cancel(false);
+            document.pending = debouncer.schedule(() -> validationPool.submit(() -> validate(sessionId, document)),
+                    debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Applies the edits to a copy so a bad change leaves the document untouched; returns a problem or null.
+     */
+    private String applyChanges(Document document, JsonNode changes) {
+        if (!changes.isArray()) return "changes must be an array";
+
+        StringBuilder text = new StringBuilder(document.text);
+        for (JsonNode change : changes) {
+            int offset = change.path("offset").asInt(-1);
+            int deleteCount = change.path("deleteCount").asInt(0);
+            if (offset < 0 || deleteCount < 0 || offset + deleteCount > text.length()) {
+                return "Change out of range at offset " + offset + " (document has " + text.length() + " characters)";
+            }
+            text.replace(offset, offset + deleteCount, change.path("text").asText(""));
+        }
+        if (text.length() > maxDocumentChars) {
+            return "Document exceeds " + maxDocumentChars + " characters";
+        }
+        document.text = text;
+        return null;
+    }
+
+    private void validate(String sessionId, Document document) {
+        // One validation at a time per document, so publications follow version order
+        synchronized (document.validationLock) {
+            String text;
+            String fileName;
+            int version;
+            int generation;
+            synchronized (document) {
+                text = document.text.toString();
+                fileName = document.fileName;
+                version = document.version;
+                generation = document.generation;
+                // Undo back to already-validated text, or an edit that changed nothing, needs no new run
+                if (text.equals(document.lastValidatedText)) return;
+            }
+
+            Map<String, Object> result;
+            try {
+                result = validationService.validateTestContent(fileName, text);
+            } catch (InterruptedException e) {
+                // Shutting down; an interrupted check says nothing about the text
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                result = Map.of("valid", false, "error", "Validation failed: " + e.getMessage());
+            }
+            Map<String, Map<String, Object>> current = diagnosticsOf(result);
+            boolean valid = Boolean.TRUE.equals(result.get("valid"));
+            synchronized (document) {
+                // Closed, reopened or resynced while validating: the client no longer has this text
+                if (document.generation != generation || !documents.containsKey(sessionId)) return;
+                publish(document, version, text, valid, current, result.get("syntaxValidationMetric"));
+            }
+        }
+    }
+
+    private void publish(Document document, int version, String text, boolean valid,
+                         Map<String, Map<String, Object>> current, Object syntaxValidationMetric) {
+        document.lastValidatedText = text;
+        List<Map<String, Object>> added = new ArrayList<>();
+        current.forEach((id, diagnostic) -> {
+            if (!document.published.containsKey(id)) added.add(diagnostic);
+        });
+        List<String> removed = new ArrayList<>();
+        for (String id : document.published.keySet()) {
+            if (!current.containsKey(id)) removed.add(id);
+        }
+        if (added.isEmpty() && removed.isEmpty() && document.lastValid != null && document.lastValid == valid) return;
+
+        document.published = current;
+        document.lastValid = valid;
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "diagnostics");
+        message.put("version", version);
+        message.put("valid", valid);
+        message.put("totalErrors", current.size());
+        message.put("syntaxValidationMetric", syntaxValidationMetric);
+        message.put("added", added);
+        message.put("removed", removed);
+        document.publisher.accept(message);
+    }
+
+    /**
+     * Diagnostics keyed by message and position; the key doubles as the id clients use for removals.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, Object>> diagnosticsOf(Map<String, Object> result) {
+        Map<String, Map<String, Object>> diagnostics = new LinkedHashMap<>();
+        Object errors = result.get("errors");
+        if (errors instanceof List<?> list && !list.isEmpty()) {
+            for (Object item : list) {
+                Map<String, Object> error = (Map<String, Object>) item;
+                Map<String, Object> loc = error.get("loc") instanceof Map ? (Map<String, Object>) error.get("loc") : Map.of();
+                addDiagnostic(diagnostics, String.valueOf(error.get("message")), loc.get("line"), loc.get("column"));
+            }
+        } else if (result.get("error") != null) {
+            // Critical parser failure or a failed check.js run
+            Object detail = result.get("message") != null ? result.get("message") : result.get("error");
+            addDiagnostic(diagnostics, String.valueOf(detail), null, null);
+        }
+        return diagnostics;
+    }
+
+    private void addDiagnostic(Map<String, Map<String, Object>> diagnostics, String message, Object line, Object column) {
+        String id = line + ":" + column + ":" + message;
+        Map<String, Object> diagnostic = new LinkedHashMap<>();
+        diagnostic.put("id", id);
+        diagnostic.put("message", message);
+        diagnostic.put("line", line);
+        diagnostic.put("column", column);
+        diagnostics.put(id, diagnostic);
+    }
+
+    private Map<String, Object> resync(Document document, String reason) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "resync");
+        message.put("version", document.version);
+        message.put("message", reason);
+        document.opened = false;
+        reset(document);
+        return message;
+    }
+
+    /**
+     * The client starts over with the whole text, so everything published so far is void.
+     */
+    private void reset(Document document) {
+        document.generation++;
+        document.published = new LinkedHashMap<>();
+        document.lastValid = null;
+        document.lastValidatedText = null;
+    }
+
+    private Map<String, Object> error(String reason) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "error");
+        message.put("message", reason);
+        return message;
+    }
+
+    private static class Document {
+        private final Consumer<Map<String, Object>> publisher;
+        private final Object validationLock = new Object();
+        private String fileName = "editor.js";
+        private StringBuilder text = new StringBuilder();
+        private int version;
+        private boolean opened;
+        private int generation;
+        private ScheduledFuture<?> pending;
+        private String lastValidatedText;
+        private Map<String, Map<String, Object>> published = new LinkedHashMap<>();
+        private Boolean lastValid;
+
+        Document(Consumer<Map<String, Object>> publisher) {
+            this.publisher = publisher;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import net.javaguides.springAi_ollama_app.dto.BatchJob;
+import net.javaguides.springAi_ollama_app.dto.BatchJobRequest;
+import net.javaguides.springAi_ollama_app.dto.TestGenerationRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BatchEvaluationServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BatchEvaluationService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) service.shutdown();
+    }
+
+    @Test
+    void interruptedValidationIsNotCheckpointed() throws Exception {
+        Path contracts = Files.createDirectories(tempDir.resolve("contracts"));
+        Files.writeString(contracts.resolve("Token.sol"), "contract Token {}");
+
+        LLMTestGenerationService generationService = mock(LLMTestGenerationService.class);
+        when(generationService.generateTestFromPrompt(any()))
+                .thenReturn(Map.of("generatedTest", "```javascript\ndescribe(\"Token\", function () {});\n```"));
+        TestValidationService validationService = mock(TestValidationService.class);
+        when(validationService.validateTestContent(anyString(), anyString()))
+                .thenThrow(new InterruptedException("shutting down"));
+        HardhatService hardhatService = mock(HardhatService.class);
+
+        service = new BatchEvaluationService(generationService, validationService, hardhatService,
+                tempDir.resolve("jobs").toString(), 1, 1, 1, 2);
+
+        BatchJobRequest request = new BatchJobRequest();
+        request.setContractsDirectory(contracts.toString());
+        request.setTemplate(new TestGenerationRequest());
+        BatchJob job = service.createFromDirectory(request);
+
+        Map<String, Object> status = service.getStatus(job);
+        for (int i = 0; i < 100 && "RUNNING".equals(status.get("state")); i++) {
+            Thread.sleep(50);
+            status = service.getStatus(job);
+        }
+
+        assertEquals("INTERRUPTED", status.get("state"));
+        assertEquals(0L, status.get("processedContracts"));
+        assertEquals("", Files.readString(service.getReportPath(job.getId(), "jsonl")));
+        verify(hardhatService, never()).runTestsWithCoverage(anyString(), anyString());
+    }
+
+    @Test
+    void runningJobCannotBeResumedTwice() throws Exception {
+        Path contracts = Files.createDirectories(tempDir.resolve("contracts"));
+        Files.writeString(contracts.resolve("Token.sol"), "contract Token {}");
+
+        LLMTestGenerationService generationService = mock(LLMTestGenerationService.class);
+        Object release = new Object();
+        when(generationService.generateTestFromPrompt(any())).thenAnswer(invocation -> {
+            synchronized (release) {
+                release.wait(5000);
+            }
+            return Map.of("generatedTest", "");
+        });
+
+        service = new BatchEvaluationService(generationService, mock(TestValidationService.class),
+                mock(HardhatService.class), tempDir.resolve("jobs").toString(), 1, 1, 1, 2);
+
+        BatchJobRequest request = new BatchJobRequest();
+        request.setContractsDirectory(contracts.toString());
+        request.setTemplate(new TestGenerationRequest());
+        BatchJob job = service.createFromDirectory(request);
+
+        assertThrows(IllegalStateException.class, () -> service.resume(job.getId()));
+        synchronized (release) {
+            release.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolidityParserTest {
+
+    private static final String SOURCE = """
+            // SPDX-License-Identifier: MIT
+            pragma solidity ^0.8.20;
+
+            import "./IERC20.sol";
+
+            /* A token with a "}" in a comment */
+            contract Token is IERC20 {
+                event Transfer(address indexed from, address indexed to, uint256 value);
+
+                mapping(address => uint256) public balanceOf;
+                string public name = "To{ken";
+
+                constructor(uint256 supply) {
+                    balanceOf[msg.sender] = supply;
+                }
+
+                function transfer(address to, uint256 amount) external returns (bool) {
+                    require(balanceOf[msg.sender] >= amount, "balance }");
+                    balanceOf[msg.sender] -= amount;
+                    balanceOf[to] += amount;
+                    return true;
+                }
+
+                function total() public view returns (uint256) {
+                    return 0;
+                }
+
+                function _move() internal {}
+
+                receive() external payable {}
+            }
+
+            library Math {
+                function max(uint256 a, uint256 b) internal pure returns (uint256) {
+                    return a > b ? a : b;
+                }
+            }
+            """;
+
+    @Test
+    void splitsContractsFromThePreamble() {
+        SolidityParser.ParsedSource parsed = SolidityParser.parse(SolidityParser.stripComments(SOURCE));
+
+        assertEquals(List.of("pragma solidity ^0.8.20;", "import \"./IERC20.sol\";"), parsed.getPreamble());
+        assertEquals(List.of("Token", "Math"),
+                parsed.getContracts().stream().map(SolidityParser.ContractUnit::getName).collect(Collectors.toList()));
+        assertEquals("contract", parsed.getContracts().get(0).getKind());
+        assertEquals("library", parsed.getContracts().get(1).getKind());
+        assertEquals("contract Token is IERC20", parsed.getContracts().get(0).getHeader());
+    }
+
+    @Test
+    void readsMembersWithKindNameVisibilityAndMutability() {
+        SolidityParser.ContractUnit token = SolidityParser.parse(SolidityParser.stripComments(SOURCE)).getContracts().get(0);
+
+        assertEquals(List.of("event:Transfer", "variable:balanceOf", "variable:name", "constructor:constructor",
+                        "function:transfer", "function:total", "function:_move", "receive:receive"),
+                token.getMembers().stream().map(m -> m.getKind() + ":" + m.getName()).collect(Collectors.toList()));
+
+        SolidityParser.Member transfer = token.getMembers().get(4);
+        assertEquals("external", transfer.getVisibility());
+        assertEquals("nonpayable", transfer.getMutability());
+        assertTrue(transfer.hasBody());
+        // Braces inside strings don't end the body early
+        assertTrue(transfer.getText().strip().endsWith("return true;\n    }"));
+        assertEquals("function transfer(address to, uint256 amount) external returns (bool) { ... }", transfer.summarize());
+
+        assertEquals("view", token.getMembers().get(5).getMutability());
+        assertEquals("internal", token.getMembers().get(6).getVisibility());
+        assertEquals("payable", token.getMembers().get(7).getMutability());
+        // Members without a body are summarized by their full text
+        assertEquals("string public name = \"To{ken\";", token.getMembers().get(2).summarize());
+    }
+
+    @Test
+    void stripCommentsKeepsStrings() {
+        String stripped = SolidityParser.stripComments("string s = \"// not a comment\"; // a comment\n/* block */ uint x;");
+
+        assertEquals("string s = \"// not a comment\";\n uint x;", stripped);
+    }
+}
@@ -0,0 +1,205 @@
+package net.javaguides.springAi_ollama_app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TestFileMergerTest {
+
+    private static final String FIRST = """
+            const { expect } = require("chai");
+            const { ethers } = require("hardhat");
+
+            const INITIAL = 1000;
+
+            describe("Token", function () {
+              let token;
+
+              beforeEach(async function () {
+                const Token = await ethers.getContractFactory("Token");
+                token = await Token.deploy(INITIAL);
+              });
+
+              describe("transfer", function () {
+                it("moves tokens", async function () {
+                  expect(await token.totalSupply()).to.equal(INITIAL);
+                });
+              });
+            });
+            """;
+
+    @Test
+    void requiresAndDeclarationsAreMergedByName() throws Exception {
+        String second = """
+                const { expect } = require('chai');
+                const { ethers } = require('hardhat');
+
+                const INITIAL = 1000;
+
+                describe('Token', function () {
+                  let token;
+
+                  beforeEach(async function () {
+                    const Token = await ethers.getContractFactory('Token');
+                    token = await Token.deploy(INITIAL);
+                  });
+
+                  describe('approve', function () {
+                    it('sets the allowance', async function () {
+                      expect(await token.totalSupply()).to.equal(INITIAL);
+                    });
+                  });
+                });
+                """;
+
+        String merged = TestFileMerger.merge("Token", List.of(FIRST, second));
+
+        assertEquals(1, count(merged, "require(\"chai\")"), merged);
+        assertEquals(1, count(merged, "require(\"hardhat\")"), merged);
+        assertEquals(1, count(merged, "const INITIAL"), merged);
+        assertEquals(1, count(merged, "beforeEach("), merged);
+        assertTrue(merged.contains("moves tokens") && merged.contains("sets the allowance"), merged);
+        assertParses(merged);
+    }
+
+    @Test
+    void destructuredRequiresOfOneModuleAreCombined() throws Exception {
+        String second = """
+                const { expect, assert } = require("chai");
+
+                describe("Token", function () {
+                  it("works", async function () {
+                    assert.ok(true);
+                  });
+                });
+                """;
+
+        String merged = TestFileMerger.merge("Token", List.of(FIRST, second));
+
+        assertTrue(merged.startsWith("const { expect, assert } = require(\"chai\");"), merged);
+        assertEquals(1, count(merged, "require(\"chai\")"), merged);
+        assertParses(merged);
+    }
+
+    @Test
+    void conflictingValuesAreRenamedInTheLaterFile() throws Exception {
+        String second = """
+                const { expect } = require("chai");
+
+                const INITIAL = 5;
+
+                describe("Token", function () {
+                  it("mints the initial supply", async function () {
+                    const config = { INITIAL: 1 };
+                    expect(config.INITIAL + INITIAL).to.equal(6);
+                    expect(`${INITIAL} tokens`).to.equal("5 tokens");
+                    expect("INITIAL").to.be.a("string");
+                  });
+                });
+                """;
+
+        String merged = TestFileMerger.merge("Token", List.of(FIRST, second));
+
+        assertTrue(merged.contains("const INITIAL = 1000;"), merged);
+        assertTrue(merged.contains("const INITIAL_2 = 5;"), merged);
+        assertTrue(merged.contains("config.INITIAL + INITIAL_2"), merged);
+        assertTrue(merged.contains("`${INITIAL_2} tokens`"), merged);
+        assertTrue(merged.contains("expect(\"INITIAL\")"), merged);
+        // The first file keeps its own name
+        assertTrue(merged.contains("Token.deploy(INITIAL)"), merged);
+        assertParses(merged);
+    }
+
+    @Test
+    void differentHooksStayWithTheirOwnTests() throws Exception {
+        String second = """
+                const { expect } = require("chai");
+
+                describe("Token", function () {
+                  let token;
+
+                  beforeEach(async function () {
+                    token = await (await ethers.getContractFactory("Token")).deploy(1);
+                  });
+
+                  describe("burn", function () {
+                    it("burns", async function () {
+                      expect(await token.totalSupply()).to.equal(1);
+                    });
+                  });
+                });
+                """;
+
+        String merged = TestFileMerger.merge("Token", List.of(FIRST, second));
+
+        assertEquals(1, count(merged, "let token;"), merged);
+        assertEquals(2, count(merged, "beforeEach("), merged);
+        // Each hook moved into the describe of the file it came from
+        assertTrue(merged.indexOf("describe(\"transfer\"") < merged.indexOf("Token.deploy(INITIAL)"), merged);
+        assertTrue(merged.indexOf("describe(\"burn\"") < merged.indexOf("deploy(1)"), merged);
+        assertParses(merged);
+    }
+
+    @Test
+    void sharedDescribesAndTestsAreMergedByTitle() throws Exception {
+        String merged = TestFileMerger.merge("Token", List.of(FIRST, FIRST));
+
+        assertEquals(1, count(merged, "describe(\"transfer\""), merged);
+        assertEquals(1, count(merged, "it(\"moves tokens\""), merged);
+        assertParses(merged);
+    }
+
+    @Test
+    void groupsBecomeSeparateDescribes() throws Exception {
+        Map<String, List<String>> files = new LinkedHashMap<>();
+        files.put("Token", List.of(FIRST));
+        files.put("Vault", List.of(FIRST.replace("describe(\"Token\"", "describe(\"Vault\"")));
+
+        String merged = TestFileMerger.merge(files);
+
+        assertTrue(merged.contains("describe(\"Token\"") && merged.contains("describe(\"Vault\""), merged);
+        assertEquals(1, count(merged, "const INITIAL"), merged);
+        assertParses(merged);
+    }
+
+    private static int count(String text, String fragment) {
+        Matcher matcher = Pattern.compile(Pattern.quote(fragment)).matcher(text);
+        int count = 0;
+        while (matcher.find()) count++;
+        return count;
+    }
+
+    /**
+     * Runs the merged file through "node --check"; skipped where Node.js is not installed.
+     */
+    private static void assertParses(String source) throws IOException, InterruptedException {
+        Process process;
+        Path file = Files.createTempFile("merged", ".js");
+        try {
+            Files.writeString(file, source);
+            try {
+                process = new ProcessBuilder("node", "--check", file.toString()).redirectErrorStream(true).start();
+            } catch (IOException noNode) {
+                assumeTrue(false, "node is not installed");
+                return;
+            }
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(process.waitFor(30, TimeUnit.SECONDS), "node --check timed out");
+            assertEquals(0, process.exitValue(), output + "\n" + source);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}